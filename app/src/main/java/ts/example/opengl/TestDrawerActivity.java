@@ -3,7 +3,6 @@ package ts.example.opengl;
 import android.app.Activity;
 import android.os.Bundle;
 import android.view.Gravity;
-import android.view.View;
 
 import com.genericdrawerLayout.FingerType;
 import com.genericdrawerLayout.GenericDrawerLayout;
@@ -20,7 +19,7 @@ public class TestDrawerActivity extends Activity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_test);
         mDrawerLayout = findViewById(R.id.genericdrawerlayout);
-        mDrawerLayout.setContentLayout(View.inflate(this, R.layout.layout_content, null));
+        mDrawerLayout.setContentLayout(R.layout.layout_content);
         mDrawerLayout.setDrawerGravity(Gravity.TOP);
         float v = getResources().getDisplayMetrics().density * 100 + 0.5f; // 100DIP
         mDrawerLayout.setDrawerEmptySize((int) v);
@@ -0,0 +1,84 @@
+package com.genericdrawerLayout;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+
+/**
+ * 可以重复使用的Bitmap缓存，按宽高复用，总大小超过上限时回收最早放入的Bitmap
+ * <p>
+ * 只在主线程使用
+ */
+final class BitmapPool {
+
+    private final ArrayList<Bitmap> mBitmaps = new ArrayList<Bitmap>();
+    /**
+     * 缓存的最大字节数
+     */
+    private final int mMaxBytes;
+    /**
+     * 当前缓存的字节数
+     */
+    private int mBytes;
+
+    BitmapPool(int maxBytes) {
+        this.mMaxBytes = maxBytes;
+    }
+
+    /**
+     * 获取一个指定大小的ARGB_8888 Bitmap，内容没有清空；没有可以复用的时新建，内存不足时返回null
+     */
+    Bitmap get(int width, int height) {
+        for (int i = mBitmaps.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = mBitmaps.get(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                mBitmaps.remove(i);
+                mBytes -= bitmap.getByteCount();
+                return bitmap;
+            }
+        }
+        try {
+            return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        } catch (OutOfMemoryError e) {
+            // 内存不足时释放缓存再试一次
+            clear();
+            try {
+                return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            } catch (OutOfMemoryError ignored) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 放回不再使用的Bitmap
+     */
+    void put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        int bytes = bitmap.getByteCount();
+        if (bytes > mMaxBytes) {
+            bitmap.recycle();
+            return;
+        }
+        mBitmaps.add(bitmap);
+        mBytes += bytes;
+        while (mBytes > mMaxBytes) {
+            Bitmap eldest = mBitmaps.remove(0);
+            mBytes -= eldest.getByteCount();
+            eldest.recycle();
+        }
+    }
+
+    /**
+     * 回收所有缓存的Bitmap
+     */
+    void clear() {
+        for (int i = 0; i < mBitmaps.size(); i++) {
+            mBitmaps.get(i).recycle();
+        }
+        mBitmaps.clear();
+        mBytes = 0;
+    }
+}
@@ -0,0 +1,156 @@
+package com.genericdrawerLayout;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * 一组按半径从小到大排列的模糊背景，在后台线程计算，计算完成后回到主线程通知
+ * <p>
+ * 除了后台计算以外只在主线程使用；Bitmap都来自同一个BitmapPool，计算完成后释放时放回，
+ * 还在计算时释放的Bitmap在计算结束后直接回收（那时缓存可能已经清空）
+ */
+final class BlurPyramid {
+
+    /**
+     * 每一层的模糊半径（相对于缩小后的图片）
+     */
+    private final int[] mRadii;
+    /**
+     * 当前的计算任务，没有开始或者已经释放时为null
+     */
+    private Job mJob;
+
+    BlurPyramid(int[] radii) {
+        this.mRadii = radii;
+    }
+
+    /**
+     * 是否已经开始计算（包括已经计算完成）
+     */
+    boolean isStarted() {
+        return mJob != null;
+    }
+
+    /**
+     * 是否已经计算完成，可以绘制
+     */
+    boolean isReady() {
+        return mJob != null && mJob.mIsReady;
+    }
+
+    int getLevelCount() {
+        return mRadii.length;
+    }
+
+    /**
+     * 获取某一层的模糊背景，只能在isReady()时调用
+     */
+    Bitmap getLevel(int level) {
+        return mJob.mLevels[level];
+    }
+
+    /**
+     * 开始在后台线程计算，之前的结果会被释放
+     *
+     * @param source  缩小后的背景，读取像素后就不再使用，可以立即放回缓存
+     * @param pool    用来获取以及放回Bitmap
+     * @param onReady 计算完成后在主线程调用
+     */
+    void start(Bitmap source, BitmapPool pool, Runnable onReady) {
+        release();
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        Bitmap[] levels = new Bitmap[mRadii.length];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = pool.get(width, height);
+            if (levels[i] == null) {
+                // 内存不足，不使用模糊背景
+                for (int j = 0; j < i; j++) {
+                    pool.put(levels[j]);
+                }
+                return;
+            }
+        }
+        int[] pixels = new int[width * height];
+        source.getPixels(pixels, 0, width, 0, 0, width, height);
+        mJob = new Job(pixels, width, height, levels, pool, onReady);
+        DrawerWorker.getHandler().post(mJob);
+    }
+
+    /**
+     * 释放结果；还在后台计算时，等计算结束回到主线程后再回收Bitmap
+     */
+    void release() {
+        if (mJob == null) {
+            return;
+        }
+        Job job = mJob;
+        mJob = null;
+        job.mIsCancelled = true;
+        if (job.mIsReady) {
+            job.putLevels();
+        }
+    }
+
+    private final class Job implements Runnable {
+
+        private final int[] mPixels;
+        private final int mWidth, mHeight;
+        private final Bitmap[] mLevels;
+        private final BitmapPool mPool;
+        private final Runnable mOnReady;
+        private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+        /**
+         * 只在主线程修改
+         */
+        private volatile boolean mIsCancelled = false;
+        /**
+         * 只在主线程读写
+         */
+        private boolean mIsReady = false;
+
+        Job(int[] pixels, int width, int height, Bitmap[] levels, BitmapPool pool, Runnable onReady) {
+            this.mPixels = pixels;
+            this.mWidth = width;
+            this.mHeight = height;
+            this.mLevels = levels;
+            this.mPool = pool;
+            this.mOnReady = onReady;
+        }
+
+        @Override
+        public void run() {
+            int[] work = new int[mPixels.length];
+            for (int i = 0; i < mLevels.length && !mIsCancelled; i++) {
+                System.arraycopy(mPixels, 0, work, 0, mPixels.length);
+                StackBlur.blur(work, mWidth, mHeight, mRadii[i]);
+                mLevels[i].setPixels(work, 0, mWidth, 0, 0, mWidth, mHeight);
+            }
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (mIsCancelled) {
+                        // 计算过程中已经释放，缓存可能已经清空（例如布局已经从窗口移除），不再放回
+                        recycleLevels();
+                        return;
+                    }
+                    mIsReady = true;
+                    mOnReady.run();
+                }
+            });
+        }
+
+        private void putLevels() {
+            for (int i = 0; i < mLevels.length; i++) {
+                mPool.put(mLevels[i]);
+            }
+        }
+
+        private void recycleLevels() {
+            for (int i = 0; i < mLevels.length; i++) {
+                mLevels[i].recycle();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.genericdrawerLayout;
+
+import android.view.Gravity;
+
+/**
+ * 抽屉在某个方向上的几何信息，在抽屉大小或者方向改变时计算一次，触摸和动画时只需要做简单的运算
+ * <p>
+ * 所有位置都是抽屉在移动方向上的translation，打开时为0
+ */
+final class DrawerAxis {
+
+    /**
+     * 抽屉的位置
+     *
+     * @see Gravity
+     */
+    final int gravity;
+    /**
+     * 是否在X轴方向移动
+     */
+    final boolean horizontal;
+    /**
+     * 打开抽屉时translation变化的方向，LEFT、TOP为1，RIGHT、BOTTOM为-1
+     */
+    final int openSign;
+    /**
+     * 抽屉在移动方向上的大小
+     */
+    final int extent;
+    /**
+     * 抽屉内容在移动方向上的大小（去掉空白区域）
+     */
+    final int contentExtent;
+    /**
+     * 完全关闭时的位置
+     */
+    final float closeTranslation;
+    /**
+     * 开始拖拽前调整的位置
+     */
+    final float startTranslation;
+    /**
+     * 拖拽时允许的最小、最大位置
+     */
+    final float minTranslation, maxTranslation;
+    /**
+     * 松手时速度不够的情况下，openSign * translation大于这个值则打开抽屉
+     */
+    final float autoOpenThreshold;
+    /**
+     * 打开状态下响应触摸的区域相对当前位置的起点和终点
+     */
+    final float touchZoneStart, touchZoneEnd;
+    /**
+     * 关闭状态下响应触摸的区域（从抽屉所在边缘开始）的起点和终点，单位PX
+     */
+    final float closedZoneStart, closedZoneEnd;
+    /**
+     * 计算时使用的参数，用于判断是否可以直接复用
+     */
+    private final int width, height, emptySize, revealSize, closedTouchSize, openedTouchSize;
+    private final float autoOpenScale;
+
+    DrawerAxis(int gravity, int width, int height, int emptySize, int revealSize,
+               int closedTouchSize, int openedTouchSize, float autoOpenScale) {
+        this.gravity = gravity;
+        this.horizontal = gravity == Gravity.LEFT || gravity == Gravity.RIGHT;
+        this.openSign = gravity == Gravity.LEFT || gravity == Gravity.TOP ? 1 : -1;
+        this.extent = horizontal ? width : height;
+        this.contentExtent = extent - emptySize;
+        this.closeTranslation = -openSign * (extent - revealSize);
+        this.startTranslation = -openSign * (extent - emptySize - revealSize);
+        this.minTranslation = Math.min(0, -openSign * extent);
+        this.maxTranslation = Math.max(0, -openSign * extent);
+        // LEFT、TOP拖出(1 - scale)就打开，RIGHT、BOTTOM拖出scale就打开
+        this.autoOpenThreshold = openSign > 0 ? -extent * autoOpenScale : -extent * (1 - autoOpenScale);
+        int touchSize = openedTouchSize < 0 ? extent : openedTouchSize;
+        this.touchZoneStart = openSign > 0 ? extent - touchSize : 0;
+        this.touchZoneEnd = touchZoneStart + touchSize;
+        int closedSize = closedTouchSize < 0 ? extent : Math.min(closedTouchSize, extent);
+        this.closedZoneStart = openSign > 0 ? 0 : extent - closedSize;
+        this.closedZoneEnd = closedZoneStart + closedSize;
+        this.width = width;
+        this.height = height;
+        this.emptySize = emptySize;
+        this.revealSize = revealSize;
+        this.closedTouchSize = closedTouchSize;
+        this.openedTouchSize = openedTouchSize;
+        this.autoOpenScale = autoOpenScale;
+    }
+
+    /**
+     * 是否是按这些参数计算出来的，参数与构造函数相同
+     */
+    boolean matches(int gravity, int width, int height, int emptySize, int revealSize,
+                    int closedTouchSize, int openedTouchSize, float autoOpenScale) {
+        return this.gravity == gravity && this.width == width && this.height == height
+                && this.emptySize == emptySize && this.revealSize == revealSize
+                && this.closedTouchSize == closedTouchSize && this.openedTouchSize == openedTouchSize
+                && this.autoOpenScale == autoOpenScale;
+    }
+
+    /**
+     * 取移动方向上的分量
+     */
+    float along(float x, float y) {
+        return horizontal ? x : y;
+    }
+
+    /**
+     * 取垂直于移动方向的分量
+     */
+    float across(float x, float y) {
+        return horizontal ? y : x;
+    }
+
+    /**
+     * 把位置限制在完全关闭到完全打开之间
+     */
+    float clamp(float translation) {
+        return Math.max(minTranslation, Math.min(translation, maxTranslation));
+    }
+
+    /**
+     * 当前位置到边界的距离（永远为正数）
+     */
+    float sliding(float translation) {
+        return extent - Math.abs(translation);
+    }
+
+    /**
+     * 松手时是否应该打开抽屉
+     *
+     * @param translation 当前位置
+     * @param velocity    移动方向上的速度
+     * @param minVelocity 认为是快速滑动的最小速度
+     */
+    boolean shouldOpen(float translation, float velocity, float minVelocity) {
+        float openVelocity = openSign * velocity;
+        return openVelocity > minVelocity || (openSign * translation > autoOpenThreshold && openVelocity > -minVelocity);
+    }
+
+    /**
+     * 触摸点到抽屉所在边缘的距离
+     *
+     * @param coordinate 触摸点在移动方向上的坐标
+     */
+    float distanceToEdge(float coordinate) {
+        return openSign > 0 ? coordinate : extent - coordinate;
+    }
+
+    /**
+     * 是否在打开状态下的触摸响应区域内
+     *
+     * @param coordinate  触摸点在移动方向上的坐标
+     * @param translation 当前位置
+     */
+    boolean isInTouchZone(float coordinate, float translation) {
+        float offset = coordinate - translation;
+        return offset > touchZoneStart && offset < touchZoneEnd;
+    }
+
+    /**
+     * 是否在关闭状态下的触摸响应区域内
+     *
+     * @param coordinate 触摸点在移动方向上的坐标
+     */
+    boolean isInClosedTouchZone(float coordinate) {
+        return coordinate >= closedZoneStart && coordinate <= closedZoneEnd;
+    }
+}
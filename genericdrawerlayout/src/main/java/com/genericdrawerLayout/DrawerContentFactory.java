@@ -0,0 +1,26 @@
+package com.genericdrawerLayout;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 创建抽屉内容视图，用来延迟创建抽屉内容
+ * <p>
+ * 在第一次打开抽屉之前，或者第一帧绘制完成后主线程空闲时调用一次；
+ * 通过setContentLayoutAsync设置时会先在后台线程调用，失败或者来不及时再在主线程调用
+ *
+ * @see GenericDrawerLayout#setContentLayout(DrawerContentFactory)
+ * @see GenericDrawerLayout#setContentLayoutAsync(DrawerContentFactory)
+ */
+public interface DrawerContentFactory {
+
+    /**
+     * 创建抽屉内容视图
+     *
+     * @param context
+     * @param parent  抽屉容器，只用来生成LayoutParams，不要把视图添加进去
+     * @return 抽屉内容视图
+     */
+    View createContentView(Context context, ViewGroup parent);
+}
@@ -0,0 +1,131 @@
+package com.genericdrawerLayout;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在后台线程创建抽屉内容，创建完成后回到主线程交给抽屉
+ * <p>
+ * 所有布局共用一个没有Looper的后台线程（不和模糊背景的计算共用），内容视图在构造时创建Handler会直接失败，
+ * 不会绑定到后台线程上；后台创建失败时回调null，由主线程重新创建
+ */
+final class DrawerContentInflater {
+
+    interface Callback {
+
+        /**
+         * 在主线程回调，请求被取消后不再回调
+         *
+         * @param request 创建请求
+         * @param view    创建好的内容视图，后台创建失败时为null
+         */
+        void onInflated(Request request, View view);
+    }
+
+    /**
+     * 空闲多久后结束后台线程，单位秒
+     */
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    private static final Object sLock = new Object();
+    private static ThreadPoolExecutor sExecutor;
+
+    private DrawerContentInflater() {
+    }
+
+    /**
+     * 创建抽屉内容的线程池，只有一个普通线程（没有Looper），空闲时结束
+     */
+    private static ThreadPoolExecutor getExecutor() {
+        synchronized (sLock) {
+            if (sExecutor == null) {
+                sExecutor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        Thread thread = new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                runnable.run();
+                            }
+                        }, "GenericDrawerLayout-inflater");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+                sExecutor.allowCoreThreadTimeOut(true);
+            }
+            return sExecutor;
+        }
+    }
+
+    /**
+     * 开始在后台线程创建抽屉内容，只能在主线程调用
+     */
+    static Request inflate(DrawerContentFactory factory, Context context, ViewGroup parent, Callback callback) {
+        Request request = new Request(factory, context, parent, callback);
+        getExecutor().execute(request);
+        return request;
+    }
+
+    static final class Request implements Runnable {
+
+        private final DrawerContentFactory mFactory;
+        private final Context mContext;
+        private final ViewGroup mParent;
+        private final Callback mCallback;
+        private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+        /**
+         * 只在主线程修改
+         */
+        private volatile boolean mIsCancelled = false;
+
+        private Request(DrawerContentFactory factory, Context context, ViewGroup parent, Callback callback) {
+            this.mFactory = factory;
+            this.mContext = context;
+            this.mParent = parent;
+            this.mCallback = callback;
+        }
+
+        /**
+         * 取消请求，只能在主线程调用；已经开始创建的内容会被丢弃
+         */
+        void cancel() {
+            mIsCancelled = true;
+            getExecutor().remove(this);
+        }
+
+        @Override
+        public void run() {
+            if (mIsCancelled) {
+                return;
+            }
+            View view;
+            try {
+                view = mFactory.createContentView(mContext, mParent);
+            } catch (Throwable e) {
+                // 不能在后台线程创建（例如构造时需要Looper，或者初始化失败），交给主线程重新创建
+                view = null;
+            }
+            final View inflated = view;
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (!mIsCancelled) {
+                        mCallback.onInflated(Request.this, inflated);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.genericdrawerLayout;
+
+import android.view.View;
+
+/**
+ * 抽屉移动（拖拽或者打开/关闭）时视图使用的layer类型
+ * <p>
+ * 移动开始时对抽屉容器以及主内容视图各调用一次，抽屉停止后恢复成{@link View#LAYER_TYPE_NONE}；
+ * 内容在移动过程中会不停刷新（例如播放动画）时，使用layer反而更慢，可以返回LAYER_TYPE_NONE
+ */
+public interface DrawerLayerPolicy {
+
+    /**
+     * 不使用layer
+     */
+    DrawerLayerPolicy NONE = new DrawerLayerPolicy() {
+        @Override
+        public int getLayerType(View view, int gravity, boolean isDrawerContent) {
+            return View.LAYER_TYPE_NONE;
+        }
+    };
+
+    /**
+     * 只有抽屉容器使用硬件layer，默认的实现
+     */
+    DrawerLayerPolicy DRAWER_ONLY = new DrawerLayerPolicy() {
+        @Override
+        public int getLayerType(View view, int gravity, boolean isDrawerContent) {
+            return isDrawerContent ? View.LAYER_TYPE_HARDWARE : View.LAYER_TYPE_NONE;
+        }
+    };
+
+    /**
+     * 抽屉容器以及主内容视图都使用硬件layer
+     */
+    DrawerLayerPolicy DRAWER_AND_CONTENT = new DrawerLayerPolicy() {
+        @Override
+        public int getLayerType(View view, int gravity, boolean isDrawerContent) {
+            return View.LAYER_TYPE_HARDWARE;
+        }
+    };
+
+    /**
+     * 获取视图在抽屉移动过程中使用的layer类型
+     *
+     * @param view            抽屉容器或者主内容视图
+     * @param gravity         正在移动的抽屉位置
+     * @param isDrawerContent view是否是抽屉容器
+     * @return View.LAYER_TYPE_*，LAYER_TYPE_NONE表示不改变
+     */
+    int getLayerType(View view, int gravity, boolean isDrawerContent);
+}
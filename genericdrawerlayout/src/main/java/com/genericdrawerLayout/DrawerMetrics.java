@@ -0,0 +1,115 @@
+package com.genericdrawerLayout;
+
+/**
+ * 抽屉拖拽延迟的统计快照
+ * <p>
+ * 由{@link GenericDrawerLayout#getDrawerMetrics()}生成，生成之后不会再变化
+ */
+public final class DrawerMetrics {
+
+    /**
+     * 从触摸事件产生到设置抽屉位置的延迟
+     */
+    private final Histogram mTouchToApplyLatency;
+    /**
+     * 从触摸事件产生到下一帧开始绘制的延迟
+     */
+    private final Histogram mTouchToFrameLatency;
+
+    DrawerMetrics(Histogram touchToApplyLatency, Histogram touchToFrameLatency) {
+        this.mTouchToApplyLatency = touchToApplyLatency;
+        this.mTouchToFrameLatency = touchToFrameLatency;
+    }
+
+    /**
+     * 从MotionEvent.getEventTime()到抽屉位置被设置的延迟
+     */
+    public Histogram getTouchToApplyLatency() {
+        return mTouchToApplyLatency;
+    }
+
+    /**
+     * 从MotionEvent.getEventTime()到设置位置后下一帧开始绘制的延迟
+     */
+    public Histogram getTouchToFrameLatency() {
+        return mTouchToFrameLatency;
+    }
+
+    /**
+     * 固定区间的延迟直方图，单位毫秒
+     */
+    public static final class Histogram {
+
+        private final long[] mUpperBounds;
+        private final long[] mCounts;
+        private final long mTotalCount;
+        private final long mMaxMillis;
+
+        Histogram(long[] upperBounds, long[] counts, long maxMillis) {
+            this.mUpperBounds = upperBounds;
+            this.mCounts = counts;
+            this.mMaxMillis = maxMillis;
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            this.mTotalCount = total;
+        }
+
+        /**
+         * 区间的数量
+         */
+        public int getBucketCount() {
+            return mCounts.length;
+        }
+
+        /**
+         * 区间的上限（包含），最后一个区间为Long.MAX_VALUE
+         */
+        public long getBucketUpperBoundMillis(int bucket) {
+            return mUpperBounds[bucket];
+        }
+
+        /**
+         * 落在区间内的采样数
+         */
+        public long getBucketCount(int bucket) {
+            return mCounts[bucket];
+        }
+
+        /**
+         * 采样总数
+         */
+        public long getTotalCount() {
+            return mTotalCount;
+        }
+
+        /**
+         * 最大的延迟
+         */
+        public long getMaxMillis() {
+            return mMaxMillis;
+        }
+
+        /**
+         * 获取百分位所在区间的上限，最后一个区间返回最大延迟
+         *
+         * @param percentile 0 - 1
+         * @return 没有采样时返回0
+         */
+        public long getPercentileMillis(float percentile) {
+            if (mTotalCount == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(mTotalCount * Math.max(0f, Math.min(percentile, 1f)));
+            long accumulated = 0;
+            for (int i = 0; i < mCounts.length; i++) {
+                accumulated += mCounts[i];
+                if (accumulated >= target && accumulated > 0) {
+                    return i == mCounts.length - 1 ? mMaxMillis : mUpperBounds[i];
+                }
+            }
+            return mMaxMillis;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.genericdrawerLayout;
+
+/**
+ * 抽屉事件分发的追踪接口，用来替代热路径上的Log输出
+ * <p>
+ * 参数全部是基本类型，调用方不需要拼接字符串；默认实现{@link #NONE}什么都不做
+ */
+public interface DrawerTracer {
+
+    /**
+     * GenericDrawerLayout.dispatchTouchEvent
+     */
+    int EVENT_LAYOUT_DISPATCH = 1;
+    /**
+     * 手指数量检测
+     */
+    int EVENT_FINGER_COUNT = 2;
+    /**
+     * ContentLayout.dispatchTouchEvent
+     */
+    int EVENT_CONTENT_DISPATCH = 3;
+    /**
+     * 抽屉不可见时ContentLayout收到的事件
+     */
+    int EVENT_CONTENT_INVISIBLE = 4;
+
+    /**
+     * 不做任何记录的默认实现
+     */
+    DrawerTracer NONE = new DrawerTracer() {
+        @Override
+        public void trace(int event, int action, int pointerCount) {
+        }
+    };
+
+    /**
+     * 记录一次事件
+     *
+     * @param event        事件类型，见EVENT_*常量
+     * @param action       MotionEvent的action
+     * @param pointerCount 手指数量
+     */
+    void trace(int event, int action, int pointerCount);
+}
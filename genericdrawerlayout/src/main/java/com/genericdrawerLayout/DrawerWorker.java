@@ -0,0 +1,30 @@
+package com.genericdrawerLayout;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+
+/**
+ * 所有抽屉布局共用的计算模糊背景的后台线程，第一次使用时启动
+ * <p>
+ * 抽屉内容在{@link DrawerContentInflater}自己的线程中创建，不会排在模糊计算的后面
+ */
+final class DrawerWorker {
+
+    private static final Object sLock = new Object();
+    private static Handler sHandler;
+
+    private DrawerWorker() {
+    }
+
+    static Handler getHandler() {
+        synchronized (sLock) {
+            if (sHandler == null) {
+                HandlerThread thread = new HandlerThread("GenericDrawerLayout-worker", Process.THREAD_PRIORITY_BACKGROUND);
+                thread.start();
+                sHandler = new Handler(thread.getLooper());
+            }
+            return sHandler;
+        }
+    }
+}
@@ -1,43 +1,44 @@
 package com.genericdrawerLayout;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
 import android.util.AttributeSet;
-import android.util.Log;
+import android.view.Choreographer;
 import android.view.Gravity;
+import android.view.LayoutInflater;
 import android.view.MotionEvent;
-import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.view.animation.LinearInterpolator;
 import android.widget.FrameLayout;
 
-import com.genericdrawerLayout.nineoldandroids.animation.Animator;
-import com.genericdrawerLayout.nineoldandroids.animation.AnimatorListenerAdapter;
-import com.genericdrawerLayout.nineoldandroids.animation.ObjectAnimator;
 import com.genericdrawerLayout.nineoldandroids.animation.ValueAnimator;
 import com.genericdrawerLayout.nineoldandroids.view.ViewHelper;
 
+import java.util.ArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 实现上下左右四个方向的抽屉效果
+ * <p>
+ * 同一个布局中最多可以有四个抽屉（每个方向一个），手势开始时由一个抽屉响应整个手势
  */
 public class GenericDrawerLayout extends FrameLayout {
 
-    private static final String TAG = GenericDrawerLayout.class.getSimpleName();
-
     private enum AnimStatus {
         OPENING, CLOSING, CLOSED, OPENED
     }
 
     /**
-     * 打开或者关闭抽屉时的DURATION
-     */
-    private static final int DURATION_OPEN_CLOSE = 300;
-    /**
-     * 默认的响应触摸事件的宽度值，单位PX
+     * 关闭状态下，默认的响应触摸事件的宽度值，单位DIP
      */
     private static final int TOUCH_VIEW_SIZE_DIP = 200;
     /**
@@ -56,61 +57,72 @@ public class GenericDrawerLayout extends FrameLayout {
      * 响应打开或者关闭的速率
      */
     private static final int VEL = 800;
-
-    private VelocityTracker mVelocityTracker;
-
-    private Context mContext;
-
     /**
-     * 关闭状态下，响应触摸事件的控件宽度
+     * 预测手指位置时向前预测的时间，单位毫秒（大约一帧）
      */
-    private int mClosedTouchViewSize;
+    private static final int PREDICTION_MILLIS = 16;
     /**
-     * 打开状态下，响应Touch事件的宽度
+     * 预测距离的衰减系数
      */
-    private int mOpenedTouchViewSize;
+    private static final float PREDICTION_DAMPING = 0.5f;
     /**
-     * 当前抽屉的Gravity
+     * 最大的预测距离，单位DIP
      */
-    private int mTouchViewGravity = Gravity.LEFT;
-
-    private FingerType mFingerType = FingerType.FINGER_DOUBLE;
+    private static final int MAX_PREDICTION_SIZE_DIP = 24;
     /**
-     * 用来防止内容部分视图的容器
+     * 抽屉快照缓存的最大字节数
      */
-    private ContentLayout mContentLayout;
+    private static final int SNAPSHOT_POOL_MAX_BYTES = 16 * 1024 * 1024;
     /**
-     * 事件回调
+     * 模糊背景时背景缩小的倍数
      */
-    private DrawerCallback mDrawerCallback;
+    private static final int BLUR_DOWNSAMPLE = 8;
     /**
-     * 当前正在播放的动画
+     * 模糊背景每一层的模糊半径（相对于缩小后的背景）
      */
-    private ValueAnimator mAnimator;
+    private static final int[] BLUR_RADII = {2, 4, 8};
     /**
-     * 是否正在播放动画
+     * 最多的抽屉数量（每个方向一个）
      */
-    private AtomicBoolean mAnimating = new AtomicBoolean(false);
+    private static final int MAX_DRAWER_COUNT = 4;
+
     /**
-     * 当前的动画状态
+     * 速度测量，每个手势开始时清空，重复使用
      */
-    private AnimStatus mAnimStatus = AnimStatus.CLOSING;
+    private final VelocityEstimator mVelocityEstimator = new VelocityEstimator();
+
+    private Context mContext;
+
     /**
-     * 当前触摸的位置相对屏幕左上角的X,Y轴值
+     * 所有的抽屉，mDrawers[0]总是mDrawer
      */
-    private float mCurTouchX, mCurTouchY;
+    private final Drawer[] mDrawers = new Drawer[MAX_DRAWER_COUNT];
     /**
-     * 用来判断是否消费Touch事件的最小滑动距离
+     * 抽屉的数量
      */
-    private float mMinDisallowDispatch;
+    private int mDrawerCount;
+    /**
+     * 通过setContentLayout、setDrawerGravity等方法设置的抽屉
+     */
+    private Drawer mDrawer;
+    /**
+     * 响应当前手势的抽屉，手势开始时选择一次
+     */
+    private Drawer mActiveDrawer;
+
+    private FingerType mFingerType = FingerType.FINGER_DOUBLE;
+    /**
+     * 按手指id记录触摸位置，用来计算多个手指的中心点以及移动距离
+     */
+    private final PointerTracker mPointerTracker = new PointerTracker(mVelocityEstimator);
     /**
-     * 是否被子View消费Touch事件
+     * 当前手势开始时是否不在抽屉的响应区域内
      */
-    private boolean isChildConsumeTouchEvent = false;
+    private boolean mIsGestureRejected = false;
     /**
-     * 是否消费Touch事件
+     * 用来判断是否消费Touch事件的最小滑动距离
      */
-    private boolean isConsumeTouchEvent = false;
+    private float mMinDisallowDispatch;
     /**
      * 是否在滑动时改变背景透明度
      */
@@ -128,18 +140,162 @@ public class GenericDrawerLayout extends FrameLayout {
      */
     private float mMaxOpaque = 1.0f;
     /**
-     * 抽屉空白区域的大小
+     * 事件追踪，默认不做任何记录
      */
-    private int mDrawerEmptySize;
+    private DrawerTracer mTracer = DrawerTracer.NONE;
     /**
-     * 用来表示抽屉是否被打开过
+     * 是否把拖拽时的位置更新合并到每一帧只执行一次
      */
-    private boolean mIsDrawerOpenned = false;
-
+    private boolean mIsCoalesceDragUpdates = false;
+    /**
+     * 是否在拖拽时预测手指的位置
+     */
+    private boolean mIsPredictiveDrag = false;
+    /**
+     * 手指按下时如果正在打开或者关闭，是否让抽屉停在当前位置并直接开始拖拽
+     */
+    private boolean mIsCatchInFlight = false;
+    /**
+     * 最大的预测距离，单位PX
+     */
+    private float mMaxPredictionSize;
+    /**
+     * 抽屉移动时视图使用的layer类型
+     */
+    private DrawerLayerPolicy mLayerPolicy = DrawerLayerPolicy.DRAWER_ONLY;
+    /**
+     * 抽屉移动时改变过layer类型的主内容视图，所有抽屉停止后恢复
+     */
+    private final ArrayList<View> mLayerPromotedViews = new ArrayList<View>();
+    /**
+     * 抽屉移动时是否只绘制移动开始时的快照
+     */
+    private boolean mIsSnapshotWhileMoving = false;
+    /**
+     * 抽屉快照使用的Bitmap缓存
+     */
+    private final BitmapPool mSnapshotPool = new BitmapPool(SNAPSHOT_POOL_MAX_BYTES);
+    /**
+     * 绘制抽屉快照的Canvas，重复使用
+     */
+    private Canvas mSnapshotCanvas;
+    /**
+     * 是否在移动抽屉时模糊抽屉后面的内容
+     */
+    private boolean mIsBlurBehind = false;
+    /**
+     * 抽屉开始移动时抽屉后面的内容（缩小后）的多层模糊结果，抽屉完全关闭后释放
+     */
+    private final BlurPyramid mBlurPyramid = new BlurPyramid(BLUR_RADII);
+    /**
+     * 是否正在截取抽屉后面的内容，这时候不绘制自己
+     */
+    private boolean mIsCapturingBehind = false;
+    /**
+     * 是否已经准备在主线程空闲时截取抽屉后面的内容
+     */
+    private boolean mIsBlurCaptureScheduled = false;
+    /**
+     * 主线程空闲时截取抽屉后面的内容，不占用移动抽屉的那一帧
+     */
+    private final MessageQueue.IdleHandler mBlurCapturer = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            mIsBlurCaptureScheduled = false;
+            if (mIsBlurBehind && isAnyDrawerInUse()) {
+                captureBlurBehind();
+            }
+            return false;
+        }
+    };
+    /**
+     * 模糊结果计算完成后刷新背景
+     */
+    private final Runnable mBlurReadyRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mDrawView.invalidate();
+        }
+    };
+    /**
+     * 绘制子View时使用的裁剪区域（没有被不透明的抽屉覆盖的部分）
+     */
+    private final Rect mDrawClipRect = new Rect();
+    private final Rect mDrawerUncoveredRect = new Rect();
+    /**
+     * 被遮住的区域有变化时刷新的区域
+     */
+    private final Rect mCoverageDirtyRect = new Rect();
+    /**
+     * 当前这一帧最近一次绘制的子View的index，按顺序绘制时下一个子View的index就是它加1
+     */
+    private int mDrawChildCursor = -1;
+    /**
+     * 是否已经准备在主线程空闲时创建抽屉内容
+     */
+    private boolean mIsContentPrefetchScheduled = false;
+    /**
+     * 主线程空闲时创建还没有创建的抽屉内容，每次空闲只创建一个抽屉的内容
+     */
+    private final MessageQueue.IdleHandler mContentPrefetcher = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            for (int i = 0; i < mDrawerCount; i++) {
+                if (mDrawers[i].hasPendingContent()) {
+                    mDrawers[i].ensureContentView();
+                    break;
+                }
+            }
+            mIsContentPrefetchScheduled = hasPendingContent();
+            return mIsContentPrefetchScheduled;
+        }
+    };
+    /**
+     * 当前这一帧绘制完成后再添加空闲回调
+     */
+    private final Runnable mScheduleContentPrefetch = new Runnable() {
+        @Override
+        public void run() {
+            Looper.myQueue().addIdleHandler(mContentPrefetcher);
+        }
+    };
+    /**
+     * 是否统计拖拽延迟
+     */
+    private boolean mIsMetricsEnabled = false;
     /**
-     * 抽屉在关闭的时候露出的宽度
+     * 从触摸事件产生到设置抽屉位置的延迟
      */
-    private int mRevealSize;
+    private final LatencyHistogram mTouchToApplyLatency = new LatencyHistogram();
+    /**
+     * 从触摸事件产生到下一帧开始绘制的延迟
+     */
+    private final LatencyHistogram mTouchToFrameLatency = new LatencyHistogram();
+    /**
+     * 最近一次拖拽事件的时间
+     */
+    private long mDragEventTime;
+    /**
+     * 等待在下一帧统计延迟的事件时间，小于0表示没有
+     */
+    private long mFrameLatencyEventTime = -1;
+    /**
+     * 是否已经添加了绘制监听
+     */
+    private boolean mIsFrameLatencyListenerAdded = false;
+    /**
+     * 在下一帧开始绘制时统计延迟
+     */
+    private final ViewTreeObserver.OnPreDrawListener mFrameLatencyListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            if (mFrameLatencyEventTime >= 0) {
+                mTouchToFrameLatency.record(SystemClock.uptimeMillis() - mFrameLatencyEventTime);
+                mFrameLatencyEventTime = -1;
+            }
+            return true;
+        }
+    };
 
     public GenericDrawerLayout(Context context) {
         this(context, null);
@@ -159,15 +315,57 @@ public class GenericDrawerLayout extends FrameLayout {
         // 初始化背景色变化控件
         mDrawView = new DrawView(mContext);
         addView(mDrawView, generateDefaultLayoutParams());
-        mClosedTouchViewSize = dip2px(mContext, TOUCH_VIEW_SIZE_DIP);
-        mOpenedTouchViewSize = TOUCH_VIEW_SIZE_DIP_OPENED;
-        // 初始化用来存放布局的容器
-        mContentLayout = new ContentLayout(mContext);
-        mContentLayout.setVisibility(View.INVISIBLE);
-        // 添加视图
-        addView(mContentLayout, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        // 初始化默认的抽屉
+        mDrawer = createDrawer(Gravity.LEFT);
+        mActiveDrawer = mDrawer;
         // 用来判断事件下发的临界距离
         mMinDisallowDispatch = dip2px(mContext, MIN_CONSUME_SIZE_DIP);
+        mMaxPredictionSize = dip2px(mContext, MAX_PREDICTION_SIZE_DIP);
+    }
+
+    /**
+     * 创建抽屉并添加到布局中
+     */
+    private Drawer createDrawer(int gravity) {
+        Drawer drawer = new Drawer(gravity);
+        // 添加视图
+        addView(drawer.mContentLayout, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        mDrawers[mDrawerCount++] = drawer;
+        return drawer;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // 关闭的抽屉不参与布局，按布局的新大小重新计算
+        for (int i = 0; i < mDrawerCount; i++) {
+            mDrawers[i].updateAxis();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        updateFrameLatencyListener();
+        scheduleContentPrefetch();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        removeFrameLatencyListener();
+        cancelContentPrefetch();
+        // 释放快照
+        for (int i = 0; i < mDrawerCount; i++) {
+            mDrawers[i].releaseSnapshot();
+        }
+        cancelBlurCapture();
+        mBlurPyramid.release();
+        mSnapshotPool.clear();
+        // 不再等待下一帧
+        for (int i = 0; i < mDrawerCount; i++) {
+            mDrawers[i].cancelPendingTranslation();
+        }
     }
 
     public static int dip2px(Context context, float dipValue) {
@@ -178,6 +376,20 @@ public class GenericDrawerLayout extends FrameLayout {
     private class DrawView extends View {
 
         Paint paint = new Paint();
+        /**
+         * 当前的透明度（0-255），没有变化时不刷新
+         */
+        private int mPaintAlpha = 0;
+        /**
+         * 没有被抽屉覆盖的区域，透明度变化时只刷新这部分
+         */
+        private final Rect mUncoveredRect = new Rect();
+        /**
+         * 当前的模糊程度（0-255），没有变化时不刷新
+         */
+        private int mBlurLevel = 0;
+        private final Paint mBlurPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        private final Rect mBlurRect = new Rect();
 
         public DrawView(Context context) {
             super(context);
@@ -189,16 +401,89 @@ public class GenericDrawerLayout extends FrameLayout {
          * 设置透明度（0-1）
          */
         public void setAlpha(float alpha) {
-            paint.setAlpha((int) (alpha * 255));
-            invalidate();
+            setAlpha(alpha, null);
+        }
+
+        /**
+         * 设置透明度（0-1），只刷新没有被抽屉覆盖的区域
+         *
+         * @param drawer 正在移动的抽屉，为null时刷新整个区域
+         */
+        void setAlpha(float alpha, Drawer drawer) {
+            int paintAlpha = (int) (alpha * 255);
+            if (paintAlpha == mPaintAlpha) {
+                // 透明度没有变化；抽屉移动后新露出的部分由抽屉自己的刷新负责
+                return;
+            }
+            mPaintAlpha = paintAlpha;
+            paint.setAlpha(paintAlpha);
+            invalidateUncovered(drawer);
+        }
+
+        /**
+         * 设置模糊程度（0-1），在计算好的几层模糊背景之间渐变
+         *
+         * @param drawer 正在移动的抽屉
+         */
+        void setBlurFraction(float fraction, Drawer drawer) {
+            int blurLevel = (int) (Math.max(0f, Math.min(fraction, 1f)) * 255);
+            if (blurLevel == mBlurLevel) {
+                return;
+            }
+            mBlurLevel = blurLevel;
+            if (mBlurPyramid.isReady()) {
+                invalidateUncovered(drawer);
+            }
+        }
+
+        /**
+         * 只刷新没有被抽屉覆盖的区域
+         *
+         * @param drawer 正在移动的抽屉，为null时刷新整个区域
+         */
+        private void invalidateUncovered(Drawer drawer) {
+            if (drawer != null) {
+                drawer.getUncoveredRect(mUncoveredRect, getWidth(), getHeight());
+                if (!mUncoveredRect.isEmpty()) {
+                    invalidate(mUncoveredRect);
+                }
+            } else {
+                invalidate();
+            }
         }
 
         @Override
         protected void onDraw(Canvas canvas) {
             super.onDraw(canvas);
+            if (mBlurLevel > 0 && mBlurPyramid.isReady()) {
+                drawBlur(canvas);
+            }
+            if (mPaintAlpha == 0) {
+                // 完全透明，不需要绘制
+                return;
+            }
             canvas.drawPaint(paint);
         }
 
+        /**
+         * 按模糊程度绘制相邻的两层模糊背景，上面一层按比例渐变
+         */
+        private void drawBlur(Canvas canvas) {
+            final int count = mBlurPyramid.getLevelCount();
+            final float position = mBlurLevel / 255f * count;
+            final int lower = Math.min((int) position, count);
+            final float weight = position - lower;
+            mBlurRect.set(0, 0, getWidth(), getHeight());
+            if (lower > 0) {
+                mBlurPaint.setAlpha(255);
+                canvas.drawBitmap(mBlurPyramid.getLevel(lower - 1), null, mBlurRect, mBlurPaint);
+            }
+            if (lower < count && weight > 0) {
+                mBlurPaint.setAlpha((int) (weight * 255));
+                canvas.drawBitmap(mBlurPyramid.getLevel(lower), null, mBlurRect, mBlurPaint);
+            }
+        }
+
     }
 
     /**
@@ -207,10 +492,20 @@ public class GenericDrawerLayout extends FrameLayout {
      * @param revealSize
      */
     public void setDrawerRevealSize(int revealSize) {
-        if (revealSize < 0) {
-            return;
+        mDrawer.setRevealSize(revealSize);
+    }
+
+    /**
+     * 设置某个方向上的抽屉在关闭的时候露出的部分大小
+     *
+     * @param gravity    抽屉位置
+     * @param revealSize
+     */
+    public void setDrawerRevealSize(int gravity, int revealSize) {
+        Drawer drawer = getDrawer(gravity);
+        if (drawer != null) {
+            drawer.setRevealSize(revealSize);
         }
-        this.mRevealSize = revealSize;
     }
 
     /**
@@ -219,10 +514,20 @@ public class GenericDrawerLayout extends FrameLayout {
      * @param emptySize
      */
     public void setDrawerEmptySize(int emptySize) {
-        if (emptySize < 0) {
-            emptySize = 0;
+        mDrawer.setEmptySize(emptySize);
+    }
+
+    /**
+     * 设置某个方向上的抽屉打开后的空白区域大小
+     *
+     * @param gravity   抽屉位置
+     * @param emptySize
+     */
+    public void setDrawerEmptySize(int gravity, int emptySize) {
+        Drawer drawer = getDrawer(gravity);
+        if (drawer != null) {
+            drawer.setEmptySize(emptySize);
         }
-        this.mDrawerEmptySize = emptySize;
     }
 
     /**
@@ -230,11 +535,30 @@ public class GenericDrawerLayout extends FrameLayout {
      */
     private class ContentLayout extends FrameLayout {
 
+        /**
+         * 容器所属的抽屉
+         */
+        private final Drawer mOwner;
         private float mDownX, mDownY;
         private boolean isTouchDown;
+        /**
+         * 是否被子View消费Touch事件
+         */
+        private boolean isChildConsumeTouchEvent = false;
+        /**
+         * 是否消费Touch事件
+         */
+        private boolean isConsumeTouchEvent = false;
 
-        public ContentLayout(Context context) {
+        public ContentLayout(Context context, Drawer drawer) {
             super(context);
+            this.mOwner = drawer;
+        }
+
+        @Override
+        protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+            super.onSizeChanged(w, h, oldw, oldh);
+            mOwner.updateAxis();
         }
 
         @Override
@@ -243,48 +567,71 @@ public class GenericDrawerLayout extends FrameLayout {
             // 设置自身的大小
             setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), MeasureSpec.getSize(heightMeasureSpec));
             checkChildCount();
+            if (getChildCount() == 0) {
+                // 抽屉内容还没有创建
+                return;
+            }
 
             int size;
             int childMeasureWidth;
             int childMeasureHeight;
-            if (isHorizontalGravity()) {
+            if (mOwner.mAxis.horizontal) {
                 size = MeasureSpec.getSize(widthMeasureSpec);
-                size -= mDrawerEmptySize;
+                size -= mOwner.mDrawerEmptySize;
                 childMeasureWidth = size;
                 childMeasureHeight = MeasureSpec.getSize(heightMeasureSpec);
             } else {
                 size = MeasureSpec.getSize(heightMeasureSpec);
-                size -= mDrawerEmptySize;
+                size -= mOwner.mDrawerEmptySize;
                 childMeasureHeight = size;
                 childMeasureWidth = MeasureSpec.getSize(widthMeasureSpec);
             }
-            View child = getChildAt(0);
-            child.measure(MeasureSpec.makeMeasureSpec(childMeasureWidth, MeasureSpec.getMode(widthMeasureSpec)),
+            // 大小、方向以及空白区域都没有变化（MeasureSpec相同），子View也没有请求重新布局时，
+            // View.measure不会再调用子View的onMeasure，这里不需要另外缓存
+            getChildAt(0).measure(MeasureSpec.makeMeasureSpec(childMeasureWidth, MeasureSpec.getMode(widthMeasureSpec)),
                     MeasureSpec.makeMeasureSpec(childMeasureHeight, MeasureSpec.getMode(heightMeasureSpec)));
         }
 
         @Override
         protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
-            super.onLayout(changed, left, top, right, bottom);
+            // 不调用super.onLayout，子View只布局一次
             checkChildCount();
-            // 重新绘制子View的位置
+            if (getChildCount() == 0) {
+                return;
+            }
+            // 子View的位置相对于自己，留出空白区域
             View child = getChildAt(0);
-            switch (mTouchViewGravity) {
+            final int width = right - left;
+            final int height = bottom - top;
+            final int emptySize = mOwner.mDrawerEmptySize;
+            switch (mOwner.mTouchViewGravity) {
                 case Gravity.LEFT:
-                    child.layout(left, top, right - mDrawerEmptySize, bottom);
+                    child.layout(0, 0, width - emptySize, height);
                     break;
                 case Gravity.TOP:
-                    child.layout(left, top, right, bottom - mDrawerEmptySize);
+                    child.layout(0, 0, width, height - emptySize);
                     break;
                 case Gravity.RIGHT:
-                    child.layout(left + mDrawerEmptySize, top, right, bottom);
+                    child.layout(emptySize, 0, width, height);
                     break;
                 case Gravity.BOTTOM:
-                    child.layout(left, top + mDrawerEmptySize, right, bottom);
+                    child.layout(0, emptySize, width, height);
                     break;
             }
         }
 
+        @Override
+        protected void dispatchDraw(Canvas canvas) {
+            final Bitmap snapshot = mOwner.mSnapshot;
+            if (snapshot == null || getChildCount() == 0) {
+                super.dispatchDraw(canvas);
+                return;
+            }
+            // 移动时只绘制快照，子View的刷新不会重新绘制
+            View child = getChildAt(0);
+            canvas.drawBitmap(snapshot, child.getLeft(), child.getTop(), null);
+        }
+
         /**
          * 检测自身的子View是否是只有一个
          */
@@ -303,10 +650,10 @@ public class GenericDrawerLayout extends FrameLayout {
         public boolean dispatchTouchEvent(MotionEvent event) {
             if (getVisibility() != View.VISIBLE) {
                 // 抽屉不可见
-                Log.e("ContentLayout", "INVISIBLE");
+                mTracer.trace(DrawerTracer.EVENT_CONTENT_INVISIBLE, event.getAction(), event.getPointerCount());
                 return super.dispatchTouchEvent(event);
             }
-            Log.e("ContentLayout", "dispatchTouchEvent action=" + event.getAction() + " fingerCount=" + event.getPointerCount());
+            mTracer.trace(DrawerTracer.EVENT_CONTENT_DISPATCH, event.getAction(), event.getPointerCount());
             // TOUCH_DOWN的时候未消化事件
             if (MotionEvent.ACTION_DOWN != event.getAction() && !isTouchDown) {
                 isChildConsumeTouchEvent = true;
@@ -314,29 +661,32 @@ public class GenericDrawerLayout extends FrameLayout {
 
             // 如果自己还没消化掉事件，看看子view是否需要消费事件
             boolean goToConsumeTouchEvent = false;
+            // 当前事件是否已经下发给子View，每个事件最多只下发一次
+            boolean dispatchedToChildren = false;
 
             // 把事件拦截下来，按条件下发给子View；
             switch (event.getAction()) {
                 case MotionEvent.ACTION_DOWN:
-                    if (mAnimating.get()) {
-                        mAnimating.set(false);
+                    if (mOwner.mAnimating.get()) {
                         // 停止播放动画
-                        mAnimator.end();
+                        mOwner.interruptSettling();
+                        if (getVisibility() != View.VISIBLE) {
+                            // 动画直接结束在关闭的位置，抽屉已经不可见
+                            return super.dispatchTouchEvent(event);
+                        }
                         isTouchDown = true;
                         isConsumeTouchEvent = true;
                         goToConsumeTouchEvent = true;
                         // 如果自己消费了事件，则下发TOUCH_CANCEL事件（防止Button一直处于被按住的状态）
-                        MotionEvent obtain = MotionEvent.obtain(event);
-                        obtain.setAction(MotionEvent.ACTION_CANCEL);
-                        super.dispatchTouchEvent(obtain);
+                        dispatchCancelToChildren(event);
                     } else {
                         // 判断是否点击在响应区域内
-                        isTouchDown = isDownInRespondArea(event);
+                        isTouchDown = mOwner.isDownInRespondArea(event);
                     }
                     if (isTouchDown) {
                         mDownX = event.getX(0);
                         mDownY = event.getY(0);
-                        performDispatchTouchEvent(event);
+                        mOwner.performDispatchTouchEvent(event);
                     } else {
                         // 标记为子视图消费事件
                         isChildConsumeTouchEvent = true;
@@ -350,67 +700,37 @@ public class GenericDrawerLayout extends FrameLayout {
                 case MotionEvent.ACTION_MOVE:
                     if (!isConsumeTouchEvent && !isChildConsumeTouchEvent) {
 
-                        // 先下发给子View看看子View是否需要消费
+                        // 先下发给子View看看子View是否需要消费，这次下发同时也是这个事件唯一的一次下发
                         boolean b = super.dispatchTouchEvent(event);
-
-                        switch (mTouchViewGravity) {
-                            case Gravity.LEFT:
-                                if ((Math.abs(event.getY(0) - mDownY) >= mMinDisallowDispatch) && b) {
-                                    // 当抽屉在左侧，手指在Y轴移动的距离大于临界值，并且子视图消费了Move事件，则标记为子视图已经消费
-                                    isChildConsumeTouchEvent = true;
-                                } else if (event.getX(0) - mDownX < -mMinDisallowDispatch) {
-                                    // 当X轴方向移动的距离大于临界值的时候，标记为抽屉消费了事件，这时候需要移动抽屉
-                                    isConsumeTouchEvent = true;
-                                    goToConsumeTouchEvent = true;
-                                }
-                                break;
-                            case Gravity.RIGHT:
-                                if ((Math.abs(event.getY(0) - mDownY) >= mMinDisallowDispatch) && b) {
-                                    // 当抽屉在右侧，手指在Y轴移动的距离大于临界值，并且子视图消费了Move事件，则标记为子视图已经消费
-                                    isChildConsumeTouchEvent = true;
-                                } else if (event.getX(0) - mDownX > mMinDisallowDispatch) {
-                                    // 当X轴方向移动的距离大于临界值的时候，标记为抽屉消费了事件，这时候需要移动抽屉
-                                    isConsumeTouchEvent = true;
-                                    goToConsumeTouchEvent = true;
-                                }
-                                break;
-                            case Gravity.BOTTOM:
-                                if ((Math.abs(event.getX(0) - mDownX) >= mMinDisallowDispatch) && b) {
-                                    // 当抽屉在下侧，手指在X轴移动的距离大于临界值，并且子视图消费了Move事件，则标记为子视图已经消费
-                                    isChildConsumeTouchEvent = true;
-                                } else if (event.getY(0) - mDownY > mMinDisallowDispatch) {
-                                    // 当Y轴方向移动的距离大于临界值的时候，标记为抽屉消费了事件，这时候需要移动抽屉
-                                    isConsumeTouchEvent = true;
-                                    goToConsumeTouchEvent = true;
-                                }
-                                break;
-                            case Gravity.TOP:
-                                if ((Math.abs(event.getX(0) - mDownX) >= mMinDisallowDispatch) && b) {
-                                    // 当抽屉在上侧，手指在X轴移动的距离大于临界值，并且子视图消费了Move事件，则标记为子视图已经消费
-                                    isChildConsumeTouchEvent = true;
-                                } else if (event.getY(0) - mDownY < -mMinDisallowDispatch) {
-                                    // 当Y轴方向移动的距离大于临界值的时候，标记为抽屉消费了事件，这时候需要移动抽屉
-                                    isConsumeTouchEvent = true;
-                                    goToConsumeTouchEvent = true;
-                                }
-                                break;
+                        dispatchedToChildren = true;
+
+                        final DrawerAxis axis = mOwner.mAxis;
+                        final float deltaX = event.getX(0) - mDownX;
+                        final float deltaY = event.getY(0) - mDownY;
+                        if (Math.abs(axis.across(deltaX, deltaY)) >= mMinDisallowDispatch && b) {
+                            // 手指在垂直于抽屉移动方向上移动的距离大于临界值，并且子视图消费了Move事件，则标记为子视图已经消费
+                            isChildConsumeTouchEvent = true;
+                        } else if (axis.openSign * axis.along(deltaX, deltaY) < -mMinDisallowDispatch) {
+                            // 在关闭抽屉的方向上移动的距离大于临界值的时候，标记为抽屉消费了事件，这时候需要移动抽屉
+                            isConsumeTouchEvent = true;
+                            goToConsumeTouchEvent = true;
                         }
                         if (goToConsumeTouchEvent) {
                             // 如果自己消费了事件，则下发TOUCH_CANCEL事件（防止Button一直处于被按住的状态）
-                            MotionEvent obtain = MotionEvent.obtain(event);
-                            obtain.setAction(MotionEvent.ACTION_CANCEL);
-                            super.dispatchTouchEvent(obtain);
+                            dispatchCancelToChildren(event);
                         }
                     }
                     break;
             }
 
             if (isChildConsumeTouchEvent || !isConsumeTouchEvent) {
-                // 自己未消费之前，先下发给子View
-                super.dispatchTouchEvent(event);
+                // 自己未消费之前，先下发给子View（判断阶段已经下发过的不再重复下发）
+                if (!dispatchedToChildren) {
+                    super.dispatchTouchEvent(event);
+                }
             } else if (isConsumeTouchEvent && !isChildConsumeTouchEvent) {
                 // 如果自己消费了，则不给子View
-                performDispatchTouchEvent(event);
+                mOwner.performDispatchTouchEvent(event);
             }
 
             switch (event.getAction()) {
@@ -418,7 +738,7 @@ public class GenericDrawerLayout extends FrameLayout {
                 case MotionEvent.ACTION_CANCEL:
                     if (!isConsumeTouchEvent && !isChildConsumeTouchEvent) {
                         // 如果子View以及自己都没消化，则自己消化，防止点击一下，抽屉卡住
-                        performDispatchTouchEvent(event);
+                        mOwner.performDispatchTouchEvent(event);
                     }
                     isConsumeTouchEvent = false;
                     isChildConsumeTouchEvent = false;
@@ -429,155 +749,1483 @@ public class GenericDrawerLayout extends FrameLayout {
             return true;
         }
 
-    }
-
-    /**
-     * 是否点击在响应区域
-     */
-    private boolean isDownInRespondArea(MotionEvent event) {
-        float curTranslation = getCurTranslation();
-        int touchSize;
-        touchSize = mOpenedTouchViewSize == ViewGroup.LayoutParams.MATCH_PARENT ? mContentLayout.getWidth() : mOpenedTouchViewSize;
-        float x = event.getX();
-        float y = event.getY();
-        switch (mTouchViewGravity) {
-            case Gravity.LEFT:
-                float xSize = x - mContentLayout.getWidth();
-                if (xSize > curTranslation - touchSize && xSize < curTranslation) {
-                    return true;
-                }
-                break;
-            case Gravity.RIGHT:
-                if (x > curTranslation && x < curTranslation + touchSize) {
-                    return true;
-                }
-                break;
-            case Gravity.BOTTOM:
-                if (y > curTranslation && y < curTranslation + touchSize) {
-                    return true;
-                }
-                break;
-            case Gravity.TOP:
-                float ySize = y - mContentLayout.getHeight();
-                if (ySize > curTranslation - touchSize && ySize < curTranslation) {
-                    return true;
-                }
-                break;
-            default:
-                break;
-        }
-        return false;
-    }
-
-    @Override
-    public boolean dispatchTouchEvent(MotionEvent ev) {
-        Log.e(TAG, "(dispatchTouchEvent, action=" + ev.getAction() + "  finger count=" + ev.getPointerCount());
-
-        if (!mIsOpenable) {
-            // 如果禁用了抽屉
-            return super.dispatchTouchEvent(ev);
-        }
-
-        switch (ev.getActionMasked()) {
-            case MotionEvent.ACTION_POINTER_DOWN:
-                //TODO 目前只考虑TOP情况
-                if(ev.getY() > TOUCH_VIEW_SIZE_DIP){
-                    return super.dispatchTouchEvent(ev);
-                }
-                if(errorFingerCount(ev)){
-                    return super.dispatchTouchEvent(ev);
-                }
-                // 显示抽屉
-                mContentLayout.setVisibility(View.VISIBLE);
-                // 调整抽屉位置
-                adjustContentLayout();
-                if (mDrawerCallback != null) {
-                    // 回调事件（开始打开抽屉）
-                    mDrawerCallback.onPreOpen();
-                }
-                break;
-        }
-        if(!errorFingerCount(ev)) {
-            // 处理Touch事件
-            performDispatchTouchEvent(ev);
+        /**
+         * 把当前事件临时改成ACTION_CANCEL下发给子View，下发完成后恢复原来的action，
+         * 不需要每次都MotionEvent.obtain一个新的事件
+         */
+        private void dispatchCancelToChildren(MotionEvent event) {
+            final int action = event.getAction();
+            event.setAction(MotionEvent.ACTION_CANCEL);
+            super.dispatchTouchEvent(event);
+            event.setAction(action);
         }
-        return true;
-    }
 
-    private boolean errorFingerCount(MotionEvent event) {
-        int fingerCount = event.getPointerCount();
-        Log.e(TAG, "fingerCount = " + fingerCount);
-        switch (mFingerType) {
-            case FINGER_SINGLE:
-                return fingerCount != 1;
-            case FINGER_DOUBLE:
-                return fingerCount != 2;
-            case FINGER_TRIPLE:
-                return fingerCount != 3;//TODO 需要处理四个手指的异常情况
-        }
-        return true;
     }
 
-    private void performDispatchTouchEvent(MotionEvent event) {
-        if (mVelocityTracker == null) {
-            // 速度测量
-            mVelocityTracker = VelocityTracker.obtain();
-        }
-        // 调整事件信息，用于测量速度
-        MotionEvent trackerEvent = MotionEvent.obtain(event);
-        trackerEvent.setLocation(event.getX(0), event.getY(0));//TODO 目前取第一个手指为活跃手指
-        mVelocityTracker.addMovement(trackerEvent);
-        switch (event.getActionMasked()) {
-            case MotionEvent.ACTION_DOWN:
-                // 记录当前触摸的位置
-                mCurTouchX = event.getX(0);
-                mCurTouchY = event.getY(0);
-                break;
-            case MotionEvent.ACTION_MOVE:
-                float moveX = event.getX(0) - mCurTouchX;
-                float moveY = event.getY(0) - mCurTouchY;
-                // 移动抽屉
-                translateContentLayout(moveX, moveY);
-                mCurTouchX = event.getX(0);
-                mCurTouchY = event.getY(0);
-                break;
-            case MotionEvent.ACTION_UP:
-            case MotionEvent.ACTION_POINTER_UP:
-            case MotionEvent.ACTION_CANCEL:
-                // 处理抬起事件
-                handleTouchUp();
-                break;
-        }
-    }
+    /**
+     * 一个方向上的抽屉：抽屉容器、几何信息、拖拽以及打开/关闭动画的状态
+     * <p>
+     * 触摸位置、速度以及各种开关由所有抽屉共用
+     */
+    private class Drawer implements DrawerContentInflater.Callback {
 
-    private void translationCallback(float sliding) {
-        // 调整sliding，以免一开始拉背景就变得很黑
-        sliding = sliding > mDrawerEmptySize ? sliding - mDrawerEmptySize : 0;
-        if (mDrawerCallback != null) {
-            float fraction;
-            if (isHorizontalGravity()) {
-                fraction = sliding / (mContentLayout.getWidth() - mDrawerEmptySize);
-            } else {
-                fraction = sliding / (mContentLayout.getHeight() - mDrawerEmptySize);
-            }
-            mDrawerCallback.onTranslating(mTouchViewGravity, sliding, fraction);
-        }
-        if (mIsOpaqueWhenTranslating) {
-            if (isHorizontalGravity()) {
-                mDrawView.setAlpha(Math.min(sliding / mContentLayout.getWidth(), mMaxOpaque));
-            } else {
-                mDrawView.setAlpha(Math.min(sliding / mContentLayout.getHeight(), mMaxOpaque));
-            }
+        /**
+         * 抽屉的Gravity
+         */
+        private int mTouchViewGravity;
+        /**
+         * 抽屉方向上的几何信息，抽屉大小、方向、空白区域或者露出部分改变时重新计算
+         */
+        private DrawerAxis mAxis;
+        /**
+         * 上一次使用的几何信息；抽屉显示、隐藏时在两种大小之间切换，参数相同时直接复用，不重新创建
+         */
+        private DrawerAxis mSpareAxis;
+        /**
+         * 用来防止内容部分视图的容器
+         */
+        private final ContentLayout mContentLayout;
+        /**
+         * 事件回调
+         */
+        private DrawerCallback mDrawerCallback;
+        /**
+         * 打开或者关闭抽屉的动画，只创建一次，每次打开/关闭时重新设置时长
+         */
+        private final ValueAnimator mAnimator;
+        /**
+         * 当前的动画是否是打开抽屉
+         */
+        private boolean mIsSettlingOpen;
+        /**
+         * 当前动画最近一帧经过的时间，单位毫秒
+         */
+        private long mSettleElapsed;
+        /**
+         * 打开或者关闭时抽屉的运动（从松手时的位置和速度开始，停止后结束动画）
+         */
+        private final SpringSettler mSettler = new SpringSettler();
+        /**
+         * 是否正在播放动画
+         */
+        private AtomicBoolean mAnimating = new AtomicBoolean(false);
+        /**
+         * 当前的动画状态
+         */
+        private AnimStatus mAnimStatus = AnimStatus.CLOSED;
+        /**
+         * 还没有创建的抽屉内容，创建后为null
+         */
+        private DrawerContentFactory mContentFactory;
+        /**
+         * 正在后台线程创建的抽屉内容
+         */
+        private DrawerContentInflater.Request mContentRequest;
+        /**
+         * 抽屉空白区域的大小
+         */
+        private int mDrawerEmptySize;
+        /**
+         * 用来表示抽屉是否被打开过
+         */
+        private boolean mIsDrawerOpenned = false;
+        /**
+         * 抽屉在关闭的时候露出的宽度
+         */
+        private int mRevealSize;
+        /**
+         * 关闭状态下，响应触摸事件的控件宽度，单位PX
+         */
+        private int mClosedTouchViewSize = dip2px(mContext, TOUCH_VIEW_SIZE_DIP);
+        /**
+         * 打开状态下，响应Touch事件的宽度，单位PX
+         */
+        private int mOpenedTouchViewSize = TOUCH_VIEW_SIZE_DIP_OPENED;
+        /**
+         * 抽屉内容是否完全不透明
+         */
+        private boolean mIsContentOpaque = false;
+        /**
+         * 抽屉是否正在移动（拖拽或者打开/关闭）
+         */
+        private boolean mIsMoving = false;
+        /**
+         * 移动开始时抽屉内容的快照，移动过程中代替抽屉内容绘制，为null时绘制抽屉内容
+         */
+        private Bitmap mSnapshot;
+        /**
+         * 抽屉容器在布局中的index，使用前检查，子View变化后重新查找
+         */
+        private int mContainerIndex = -1;
+        /**
+         * 抽屉移动时是否已经按mLayerPolicy改变了layer类型
+         */
+        private boolean mIsLayerPromoted = false;
+        /**
+         * 拖拽时手指对应的抽屉位置（不包括预测的部分）
+         */
+        private float mDragTranslation;
+        /**
+         * mDragTranslation是否有效，只在拖拽过程中有效
+         */
+        private boolean mIsDragTranslationValid = false;
+        /**
+         * 等待在下一帧设置的抽屉位置
+         */
+        private float mPendingTranslation;
+        /**
+         * 是否有等待在下一帧设置的抽屉位置
+         */
+        private boolean mHasPendingTranslation = false;
+        /**
+         * 在下一帧设置抽屉位置
+         */
+        private final Choreographer.FrameCallback mPendingTranslationCallback = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                flushPendingTranslation();
+            }
+        };
+
+        Drawer(int gravity) {
+            this.mTouchViewGravity = gravity;
+            // 初始化用来存放布局的容器
+            mContentLayout = new ContentLayout(mContext, this);
+            // 关闭的抽屉不参与测量、布局以及绘制
+            mContentLayout.setVisibility(View.GONE);
+            updateAxis();
+            // 打开或者关闭抽屉的动画，线性播放，位置由弹簧计算
+            mAnimator = ValueAnimator.ofFloat(0f, 1f);
+            mAnimator.setInterpolator(new LinearInterpolator());
+            mAnimator.addUpdateListener(new MyAnimatorUpdateListener());
+        }
+
+        void setRevealSize(int revealSize) {
+            if (revealSize < 0) {
+                return;
+            }
+            this.mRevealSize = revealSize;
+            updateAxis();
+        }
+
+        void setEmptySize(int emptySize) {
+            if (emptySize < 0) {
+                emptySize = 0;
+            }
+            this.mDrawerEmptySize = emptySize;
+            updateAxis();
+            // 空白区域改变了子View的MeasureSpec，需要重新测量
+            mContentLayout.requestLayout();
+        }
+
+        void setTouchViewSize(int closedSize, int openedSize) {
+            this.mClosedTouchViewSize = closedSize;
+            this.mOpenedTouchViewSize = openedSize;
+            updateAxis();
+        }
+
+        void setGravity(int gravity) {
+            this.mTouchViewGravity = gravity;
+            updateAxis();
+            mContentLayout.requestLayout();
+        }
+
+        void setContentView(View view) {
+            releaseSnapshot();
+            mContentFactory = null;
+            cancelContentRequest();
+            mContentLayout.removeAllViews();
+            ViewGroup.LayoutParams lp = view.getLayoutParams();
+            if (lp != null && FrameLayout.LayoutParams.class.isInstance(lp)) {
+                mContentLayout.addView(view, lp);
+            } else {
+                mContentLayout.addView(view);
+            }
+
+            ViewGroup.LayoutParams childLp = view.getLayoutParams();
+            if (childLp != null) {
+                mContentLayout.setLayoutParams(childLp);
+            }
+        }
+
+        void setContentView(View view, FrameLayout.LayoutParams layoutParams) {
+            releaseSnapshot();
+            mContentFactory = null;
+            cancelContentRequest();
+            mContentLayout.removeAllViews();
+            mContentLayout.addView(view, layoutParams);
+            mContentLayout.setLayoutParams(layoutParams);
+        }
+
+        /**
+         * 设置延迟创建的抽屉内容，之前的内容会被移除
+         */
+        void setContentFactory(DrawerContentFactory factory) {
+            cancelContentRequest();
+            mContentLayout.removeAllViews();
+            mContentFactory = factory;
+        }
+
+        /**
+         * 设置延迟创建的抽屉内容，并立即开始在后台线程创建
+         */
+        void setContentFactoryAsync(DrawerContentFactory factory) {
+            setContentFactory(factory);
+            mContentRequest = DrawerContentInflater.inflate(factory, mContext, mContentLayout, this);
+        }
+
+        @Override
+        public void onInflated(DrawerContentInflater.Request request, View view) {
+            if (request != mContentRequest) {
+                return;
+            }
+            mContentRequest = null;
+            if (view == null) {
+                // 后台创建失败，改为在主线程创建
+                scheduleContentPrefetch();
+                return;
+            }
+            setContentView(view);
+        }
+
+        private void cancelContentRequest() {
+            if (mContentRequest != null) {
+                mContentRequest.cancel();
+                mContentRequest = null;
+            }
+        }
+
+        /**
+         * 是否有需要在主线程创建的抽屉内容（正在后台创建的不算）
+         */
+        boolean hasPendingContent() {
+            return mContentFactory != null && mContentRequest == null;
+        }
+
+        /**
+         * 抽屉内容还没有创建时立即创建；后台线程还没有创建完成时不再等待，直接在主线程创建
+         */
+        void ensureContentView() {
+            if (mContentFactory == null) {
+                return;
+            }
+            cancelContentRequest();
+            DrawerContentFactory factory = mContentFactory;
+            mContentFactory = null;
+            setContentView(factory.createContentView(mContext, mContentLayout));
+        }
+
+        /**
+         * 抽屉是否显示着不透明的内容，这时候会遮住下面的子View
+         */
+        boolean isCoveringOpaque() {
+            return mIsContentOpaque && mContentLayout.getVisibility() == View.VISIBLE && mContentLayout.getChildCount() > 0;
+        }
+
+        /**
+         * 抽屉是否正在使用（正在拖拽、正在打开/关闭或者没有完全关闭）
+         */
+        boolean isInUse() {
+            if (mAnimating.get() || mIsDragTranslationValid) {
+                return true;
+            }
+            return mContentLayout.getVisibility() == View.VISIBLE && peekCurTranslation() != getCloseTranslation();
+        }
+
+        /**
+         * 手指是否在响应区域内，按抽屉是否正在使用选择打开或者关闭状态下的区域
+         *
+         * @param x 触摸点的X坐标
+         * @param y 触摸点的Y坐标
+         */
+        boolean isInTouchZone(float x, float y) {
+            final float coordinate = mAxis.along(x, y);
+            if (isInUse()) {
+                return mAxis.isInTouchZone(coordinate, peekCurTranslation());
+            }
+            return mAxis.isInClosedTouchZone(coordinate);
+        }
+
+        /**
+         * 是否点击在响应区域
+         */
+        private boolean isDownInRespondArea(MotionEvent event) {
+            return mAxis.isInTouchZone(mAxis.along(event.getX(), event.getY()), peekCurTranslation());
+        }
+
+        /**
+         * 手势开始时，关闭的抽屉先显示并调整到开始位置
+         */
+        void onGestureStart() {
+            // 正在打开或者关闭时先停止动画，拖拽和动画不能同时移动抽屉
+            interruptSettling();
+            if (isInUse()) {
+                // 抽屉已经打开或者正在移动，直接从当前位置开始拖拽，不能调整到开始位置
+                return;
+            }
+            // 第一次打开前创建抽屉内容
+            ensureContentView();
+            // 显示抽屉
+            showContentLayout();
+            // 调整抽屉位置
+            adjustContentLayout();
+            if (mDrawerCallback != null) {
+                // 回调事件（开始打开抽屉）
+                mDrawerCallback.onPreOpen();
+            }
+        }
+
+        private void performDispatchTouchEvent(MotionEvent event) {
+            switch (event.getActionMasked()) {
+                case MotionEvent.ACTION_DOWN:
+                    // 新的拖拽从抽屉当前的位置开始
+                    mIsDragTranslationValid = false;
+                    break;
+                case MotionEvent.ACTION_MOVE:
+                    mDragEventTime = event.getEventTime();
+                    // 按所有手指的平均移动距离移动抽屉
+                    translateContentLayout(mPointerTracker.getDeltaX(), mPointerTracker.getDeltaY());
+                    break;
+                case MotionEvent.ACTION_UP:
+                case MotionEvent.ACTION_POINTER_UP:
+                case MotionEvent.ACTION_CANCEL:
+                    // 处理抬起事件
+                    handleTouchUp();
+                    break;
+            }
+        }
+
+        private void translationCallback(float sliding) {
+            // 调整sliding，以免一开始拉背景就变得很黑
+            sliding = sliding > mDrawerEmptySize ? sliding - mDrawerEmptySize : 0;
+            if (mDrawerCallback != null) {
+                float fraction = sliding / mAxis.contentExtent;
+                mDrawerCallback.onTranslating(mTouchViewGravity, sliding, fraction);
+            }
+            if (mIsOpaqueWhenTranslating) {
+                mDrawView.setAlpha(Math.min(sliding / mAxis.extent, mMaxOpaque), this);
+            }
+            if (mIsBlurBehind) {
+                mDrawView.setBlurFraction(sliding / mAxis.contentExtent, this);
+            }
+        }
+
+        /**
+         * 切换抽屉的状态（打开切换成关闭，关闭切换成打开）
+         */
+        void switchStatus() {
+            if (AnimStatus.CLOSED.equals(mAnimStatus) || AnimStatus.CLOSING.equals(mAnimStatus)) {
+                float velocity = 0;
+                if (AnimStatus.CLOSED.equals(mAnimStatus)) {
+                    showContentLayout();
+                    adjustContentLayout();
+                } else if (mAnimating.get()) {
+                    // 正在关闭，从当前的位置和速度直接反向打开，不先跳到关闭的位置
+                    velocity = getSettleVelocity();
+                }
+                autoOpenDrawer(velocity);
+            } else if (AnimStatus.OPENED.equals(mAnimStatus) || AnimStatus.OPENING.equals(mAnimStatus)) {
+                showContentLayout();
+                float velocity = 0;
+                if (AnimStatus.OPENING.equals(mAnimStatus) && mAnimating.get()) {
+                    // 正在打开，从当前的位置和速度直接反向关闭，不先跳到打开的位置
+                    velocity = getSettleVelocity();
+                }
+                autoCloseDrawer(velocity);
+            }
+        }
+
+        private void handleTouchUp() {
+            // 先把还没设置的位置设置上，再判断打开还是关闭
+            flushPendingTranslation();
+            // 用手指对应的位置判断打开还是关闭，抽屉本身停在当前显示的位置（可能包括预测的部分）
+            final float fingerTranslation = endDragTranslation();
+            final float curTranslation = getCurTranslation();
+            if (fingerTranslation == curTranslation
+                    && (curTranslation == getCloseTranslation() || curTranslation == getOpenTranslation())) {
+                // 抽屉已经停止
+                onSettled(curTranslation == getOpenTranslation());
+                return;
+            }
+            // 计算所有手指中心点每秒移动的距离
+            mVelocityEstimator.computeCurrentVelocity(1000);
+            int velocityX = (int) mVelocityEstimator.getXVelocity();
+            int velocityY = (int) mVelocityEstimator.getYVelocity();
+
+            float velocity = mAxis.along(velocityX, velocityY);
+            if (mAxis.shouldOpen(fingerTranslation, velocity, VEL)) {
+                // 速度足够，或者移动距离足够，打开抽屉
+                autoOpenDrawer(velocity);
+            } else {
+                autoCloseDrawer(velocity);
+            }
+        }
+
+        /**
+         * 自动打开抽屉
+         */
+        private void autoOpenDrawer(float velocity) {
+            ensureContentView();
+            flushPendingTranslation();
+            mIsDragTranslationValid = false;
+            stopSettling();
+            // 从当前的位置和速度开始，移动到完全打开抽屉的位置
+            mSettler.start(getCurTranslation(), velocity, getOpenTranslation(), getCloseTranslation());
+            startSettling(true);
+        }
+
+        /**
+         * 自动关闭抽屉
+         */
+        private void autoCloseDrawer(float velocity) {
+            flushPendingTranslation();
+            mIsDragTranslationValid = false;
+            stopSettling();
+            // 从当前的位置和速度开始，移动到完全关闭抽屉的位置
+            mSettler.start(getCurTranslation(), velocity, getCloseTranslation(), getOpenTranslation());
+            startSettling(false);
+        }
+
+        boolean isOpened() {
+            return mAnimStatus == AnimStatus.OPENED;
+        }
+
+        /**
+         * 是否正在自动关闭
+         */
+        boolean isClosing() {
+            return mAnimating.get() && !mIsSettlingOpen;
+        }
+
+        private class MyAnimatorUpdateListener implements ValueAnimator.AnimatorUpdateListener {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                if (!mAnimating.get()) {
+                    return;
+                }
+                // 动画是线性的，按经过的时间计算弹簧的位置
+                float fraction = animation.getAnimatedFraction();
+                mSettleElapsed = (long) (fraction * animation.getDuration());
+                float position = mSettler.getPosition(mSettleElapsed);
+                if (position != getCurTranslation()) {
+                    applyTranslation(position);
+                }
+                if (fraction >= 1f) {
+                    // 动画结束；这里不使用AnimatorListener，因为每次开始/结束时都会复制一份监听列表
+                    onSettleEnd();
+                }
+            }
+        }
+
+        /**
+         * 当前动画中抽屉的速度（最近一帧），单位PX/s
+         */
+        private float getSettleVelocity() {
+            return mAnimating.get() ? mSettler.getVelocity(mSettleElapsed) : 0;
+        }
+
+        /**
+         * 手势开始时停止正在播放的动画
+         * <p>
+         * 设置了{@link #setCatchInFlight(boolean)}时抽屉停在当前位置，否则直接跳到动画的结束位置
+         */
+        private void interruptSettling() {
+            if (!mAnimating.get()) {
+                return;
+            }
+            if (mIsCatchInFlight) {
+                // 抽屉停在当前位置，直接从这里开始拖拽，松手时再打开或者关闭
+                stopSettling();
+            } else {
+                stopSettling();
+                applyTranslation(mIsSettlingOpen ? getOpenTranslation() : getCloseTranslation());
+                onSettleEnd();
+            }
+        }
+
+        /**
+         * 停止正在播放的动画，抽屉停在当前位置，不回调结束事件
+         */
+        private void stopSettling() {
+            if (mAnimator.isRunning()) {
+                mAnimating.set(false);
+                mAnimator.cancel();
+            }
+        }
+
+        /**
+         * 按弹簧停止所需的时间重新设置动画并开始播放
+         *
+         * @param open 是否是打开抽屉
+         */
+        private void startSettling(boolean open) {
+            mIsSettlingOpen = open;
+            mSettleElapsed = 0;
+            mAnimating.set(true);
+            onMoveStart();
+            onSettleStart();
+            mAnimator.setDuration(mSettler.getSettleMillis());
+            mAnimator.start();
+        }
+
+        /**
+         * 开始打开或者关闭
+         */
+        private void onSettleStart() {
+            if (mIsSettlingOpen) {
+                // 回掉事件
+                if (!AnimStatus.OPENING.equals(mAnimStatus) && !AnimStatus.OPENED.equals(mAnimStatus)) {
+                    if (mDrawerCallback != null) {
+                        mDrawerCallback.onStartOpen();
+                    }
+                }
+                // 确保抽屉是可见的
+                showContentLayout();
+                // 更新状态
+                mAnimStatus = AnimStatus.OPENING;
+            } else {
+                if (!AnimStatus.CLOSING.equals(mAnimStatus) && !AnimStatus.CLOSED.equals(mAnimStatus)) {
+                    if (mDrawerCallback != null) {
+                        mDrawerCallback.onStartClose();
+                    }
+                }
+                mAnimStatus = AnimStatus.CLOSING;
+            }
+        }
+
+        /**
+         * 打开或者关闭完成
+         */
+        private void onSettleEnd() {
+            onSettled(mIsSettlingOpen);
+        }
+
+        /**
+         * 抽屉停在打开或者关闭的位置（动画结束或者松手时已经在这个位置）：回调结束事件、更新状态、停止移动，
+         * 关闭时不再参与布局
+         *
+         * @param opened 是否停在打开的位置
+         */
+        private void onSettled(boolean opened) {
+            if (opened) {
+                if (mDrawerCallback != null && AnimStatus.OPENING.equals(mAnimStatus)) {
+                    mDrawerCallback.onEndOpen();
+                }
+                mAnimStatus = AnimStatus.OPENED;
+            } else {
+                if (mDrawerCallback != null && AnimStatus.CLOSING.equals(mAnimStatus)) {
+                    mDrawerCallback.onEndClose();
+                }
+                mAnimStatus = AnimStatus.CLOSED;
+            }
+            mAnimating.set(false);
+            onMoveEnd();
+            if (!opened) {
+                cullContentLayout();
+            }
+        }
+
+        /**
+         * 显示抽屉，关闭时被移出布局的抽屉重新参与布局
+         */
+        private void showContentLayout() {
+            if (mContentLayout.getVisibility() == View.VISIBLE) {
+                return;
+            }
+            mContentLayout.setVisibility(View.VISIBLE);
+            // 关闭时按布局的大小计算，显示后按抽屉自己的大小计算
+            updateAxis();
+        }
+
+        /**
+         * 抽屉完全关闭后不再参与测量、布局以及绘制；关闭时需要露出一部分的抽屉保持可见
+         */
+        private void cullContentLayout() {
+            if (mRevealSize > 0 || mAnimating.get() || mContentLayout.getVisibility() == View.GONE) {
+                return;
+            }
+            mContentLayout.setVisibility(View.GONE);
+            updateAxis();
+        }
+
+        /**
+         * 抽屉开始移动（开始拖拽或者开始打开/关闭）
+         */
+        private void onMoveStart() {
+            if (mIsMoving) {
+                return;
+            }
+            mIsMoving = true;
+            if (mIsSnapshotWhileMoving) {
+                captureSnapshot();
+            }
+            if (mIsBlurBehind) {
+                scheduleBlurCapture();
+            }
+            promoteLayer();
+        }
+
+        /**
+         * 抽屉停止移动
+         */
+        private void onMoveEnd() {
+            if (!mIsMoving) {
+                return;
+            }
+            mIsMoving = false;
+            demoteLayer();
+            releaseSnapshot();
+            releaseBlurBehindIfClosed();
+        }
+
+        /**
+         * 把抽屉内容绘制到快照中，抽屉内容还没有布局时不使用快照
+         */
+        private void captureSnapshot() {
+            if (mSnapshot != null || mContentLayout.getChildCount() == 0) {
+                return;
+            }
+            View child = mContentLayout.getChildAt(0);
+            if (child.getWidth() <= 0 || child.getHeight() <= 0 || child.isLayoutRequested()) {
+                return;
+            }
+            Bitmap bitmap = mSnapshotPool.get(child.getWidth(), child.getHeight());
+            if (bitmap == null) {
+                return;
+            }
+            bitmap.eraseColor(Color.TRANSPARENT);
+            if (mSnapshotCanvas == null) {
+                mSnapshotCanvas = new Canvas();
+            }
+            mSnapshotCanvas.setBitmap(bitmap);
+            child.draw(mSnapshotCanvas);
+            mSnapshotCanvas.setBitmap(null);
+            mSnapshot = bitmap;
+            mContentLayout.invalidate();
+        }
+
+        /**
+         * 不再使用快照，恢复绘制抽屉内容
+         */
+        private void releaseSnapshot() {
+            if (mSnapshot == null) {
+                return;
+            }
+            mSnapshotPool.put(mSnapshot);
+            mSnapshot = null;
+            mContentLayout.invalidate();
+        }
+
+        /**
+         * 抽屉开始移动，按mLayerPolicy改变抽屉容器以及主内容视图的layer类型
+         */
+        private void promoteLayer() {
+            if (mIsLayerPromoted) {
+                return;
+            }
+            mIsLayerPromoted = true;
+            int layerType = mLayerPolicy.getLayerType(mContentLayout, mTouchViewGravity, true);
+            if (layerType != View.LAYER_TYPE_NONE) {
+                setLayerTypeForMove(mContentLayout, layerType);
+            }
+            promoteContentLayers(this);
+        }
+
+        /**
+         * 抽屉停止，恢复layer类型
+         */
+        private void demoteLayer() {
+            if (!mIsLayerPromoted) {
+                return;
+            }
+            mIsLayerPromoted = false;
+            if (mContentLayout.getLayerType() != View.LAYER_TYPE_NONE) {
+                mContentLayout.setLayerType(View.LAYER_TYPE_NONE, null);
+            }
+            demoteContentLayers();
+        }
+
+        /**
+         * 重新计算当前方向上的几何信息
+         */
+        private void updateAxis() {
+            int width = mContentLayout.getWidth();
+            int height = mContentLayout.getHeight();
+            if (mContentLayout.getVisibility() == View.GONE || (width == 0 && height == 0)) {
+                // 关闭的抽屉不参与布局，按抽屉容器的LayoutParams计算它在布局中的大小
+                width = computeContentLayoutSize(true);
+                height = computeContentLayoutSize(false);
+            }
+            if (mAxis != null && mAxis.matches(mTouchViewGravity, width, height,
+                    mDrawerEmptySize, mRevealSize, mClosedTouchViewSize, mOpenedTouchViewSize, SCALE_AUTO_OPEN_CLOSE)) {
+                return;
+            }
+            DrawerAxis axis = mSpareAxis;
+            if (axis == null || !axis.matches(mTouchViewGravity, width, height,
+                    mDrawerEmptySize, mRevealSize, mClosedTouchViewSize, mOpenedTouchViewSize, SCALE_AUTO_OPEN_CLOSE)) {
+                axis = new DrawerAxis(mTouchViewGravity, width, height,
+                        mDrawerEmptySize, mRevealSize, mClosedTouchViewSize, mOpenedTouchViewSize, SCALE_AUTO_OPEN_CLOSE);
+            }
+            mSpareAxis = mAxis;
+            mAxis = axis;
+        }
+
+        /**
+         * 抽屉容器没有参与布局时，按它的LayoutParams计算在当前布局中测量得到的大小
+         * <p>
+         * ContentLayout总是使用MeasureSpec中的大小，只需要计算MeasureSpec，不需要真正测量
+         *
+         * @param horizontal 计算宽度还是高度
+         */
+        private int computeContentLayoutSize(boolean horizontal) {
+            final ViewGroup.LayoutParams lp = mContentLayout.getLayoutParams();
+            final ViewGroup.MarginLayoutParams mlp = lp instanceof ViewGroup.MarginLayoutParams ? (ViewGroup.MarginLayoutParams) lp : null;
+            int parentSize;
+            int used;
+            int childSize;
+            if (horizontal) {
+                parentSize = GenericDrawerLayout.this.getWidth();
+                used = getPaddingLeft() + getPaddingRight() + (mlp != null ? mlp.leftMargin + mlp.rightMargin : 0);
+                // 还没有添加到布局中时按布局的大小计算
+                childSize = lp != null ? lp.width : ViewGroup.LayoutParams.MATCH_PARENT;
+            } else {
+                parentSize = GenericDrawerLayout.this.getHeight();
+                used = getPaddingTop() + getPaddingBottom() + (mlp != null ? mlp.topMargin + mlp.bottomMargin : 0);
+                childSize = lp != null ? lp.height : ViewGroup.LayoutParams.MATCH_PARENT;
+            }
+            final int spec = getChildMeasureSpec(MeasureSpec.makeMeasureSpec(parentSize, MeasureSpec.EXACTLY), used, childSize);
+            return MeasureSpec.getSize(spec);
+        }
+
+        /**
+         * 移动视图
+         *
+         * @param moveX
+         * @param moveY
+         */
+        private void translateContentLayout(float moveX, float moveY) {
+            onMoveStart();
+            // 一个MOVE事件可能合并了多个历史采样，这里只按最终位置移动一次
+            // 从手指对应的位置开始计算（打开预测时，抽屉显示的位置会比手指对应的位置超前一点）
+            final float curTranslation = mIsDragTranslationValid ? mDragTranslation : getShownTranslation();
+            float move = mAxis.clamp(curTranslation + mAxis.along(moveX, moveY));
+            mDragTranslation = move;
+            mIsDragTranslationValid = true;
+            if (mIsPredictiveDrag) {
+                // 按当前速度预测下一帧手指的位置
+                move = predictTranslation(move);
+            }
+            if (move == getShownTranslation()) {
+                // 位置没有变化（例如已经拖到边界），不需要重复设置位置以及回调
+                return;
+            }
+            if (mIsCoalesceDragUpdates) {
+                // 只记录位置，等到下一帧再统一设置
+                mPendingTranslation = move;
+                if (!mHasPendingTranslation) {
+                    mHasPendingTranslation = true;
+                    Choreographer.getInstance().postFrameCallback(mPendingTranslationCallback);
+                }
+                return;
+            }
+            applyTranslation(move);
+            recordDragLatency();
+        }
+
+        /**
+         * 当前显示的位置（包括等待在下一帧设置的位置）
+         */
+        private float getShownTranslation() {
+            return mHasPendingTranslation ? mPendingTranslation : getCurTranslation();
+        }
+
+        /**
+         * 根据当前速度预测下一帧时手指的位置，预测的距离会衰减并限制在最大值以内
+         *
+         * @param translation 手指对应的位置
+         */
+        private float predictTranslation(float translation) {
+            mVelocityEstimator.computeCurrentVelocity(1000);
+            float velocity = mAxis.along(mVelocityEstimator.getXVelocity(), mVelocityEstimator.getYVelocity());
+            float offset = velocity * PREDICTION_MILLIS / 1000f * PREDICTION_DAMPING;
+            offset = Math.max(-mMaxPredictionSize, Math.min(offset, mMaxPredictionSize));
+            return mAxis.clamp(translation + offset);
+        }
+
+        /**
+         * 拖拽结束，返回手指对应的位置（不包括预测的部分）
+         * <p>
+         * 抽屉不会跳回手指的位置，之后的打开或者关闭从当前显示的位置开始
+         */
+        private float endDragTranslation() {
+            if (!mIsDragTranslationValid) {
+                return getCurTranslation();
+            }
+            mIsDragTranslationValid = false;
+            return mDragTranslation;
+        }
+
+        /**
+         * 设置还没设置的抽屉位置
+         */
+        private void flushPendingTranslation() {
+            if (!mHasPendingTranslation) {
+                return;
+            }
+            mHasPendingTranslation = false;
+            Choreographer.getInstance().removeFrameCallback(mPendingTranslationCallback);
+            applyTranslation(mPendingTranslation);
+            recordDragLatency();
+        }
+
+        /**
+         * 不再等待下一帧设置抽屉位置
+         */
+        private void cancelPendingTranslation() {
+            if (mHasPendingTranslation) {
+                mHasPendingTranslation = false;
+                Choreographer.getInstance().removeFrameCallback(mPendingTranslationCallback);
+            }
+        }
+
+        /**
+         * 设置抽屉的位置并回调
+         */
+        private void applyTranslation(float move) {
+            final float oldTranslation = peekCurTranslation();
+            // 使用兼容低版本的方法移动抽屉
+            if (mAxis.horizontal) {
+                ViewHelper.setTranslationX(mContentLayout, move);
+            } else {
+                ViewHelper.setTranslationY(mContentLayout, move);
+            }
+            if (isCoveringOpaque()) {
+                // 只改变translation时不会重新绘制布局，需要按新的位置重新裁剪下面的子View
+                invalidateCoverageChange(oldTranslation, move);
+            }
+            // 回调事件
+            translationCallback(mAxis.sliding(move));
+        }
+
+        /**
+         * 拖拽开始前，调整内容视图位置
+         */
+        private void adjustContentLayout() {
+            // 移动抽屉
+            if (mAxis.horizontal) {
+                ViewHelper.setTranslationX(mContentLayout, mAxis.startTranslation);
+                ViewHelper.setTranslationY(mContentLayout, 0);
+            } else {
+                ViewHelper.setTranslationX(mContentLayout, 0);
+                ViewHelper.setTranslationY(mContentLayout, mAxis.startTranslation);
+            }
+            mIsDragTranslationValid = false;
+        }
+
+        /**
+         * 获取布局中没有被抽屉内容覆盖的区域（包括抽屉的空白区域）
+         *
+         * @param out    保存结果
+         * @param width  布局的宽度
+         * @param height 布局的高度
+         */
+        private void getUncoveredRect(Rect out, int width, int height) {
+            final float edge = getCoverEdge(peekCurTranslation());
+            final int size = mAxis.horizontal ? width : height;
+            int start;
+            int end;
+            if (mAxis.openSign > 0) {
+                // 抽屉内容在靠近边缘的一侧，露出的是另一侧
+                start = (int) edge;
+                end = size;
+            } else {
+                start = 0;
+                end = (int) Math.ceil(edge);
+            }
+            start = Math.max(0, Math.min(start, size));
+            end = Math.max(start, Math.min(end, size));
+            if (mAxis.horizontal) {
+                out.set(start, 0, end, height);
+            } else {
+                out.set(0, start, width, end);
+            }
+        }
+
+        /**
+         * 抽屉内容（不包括空白区域）靠近露出区域的边缘在布局中的位置（移动方向上）
+         *
+         * @param translation 抽屉的位置
+         */
+        private float getCoverEdge(float translation) {
+            final float origin = mAxis.along(mContentLayout.getLeft(), mContentLayout.getTop()) + translation;
+            return mAxis.openSign > 0 ? origin + mAxis.contentExtent : origin + mDrawerEmptySize;
+        }
+
+        /**
+         * 只刷新抽屉移动前后边缘之间的区域，只有这部分被遮住的状态发生了变化
+         */
+        private void invalidateCoverageChange(float oldTranslation, float newTranslation) {
+            final int width = GenericDrawerLayout.this.getWidth();
+            final int height = GenericDrawerLayout.this.getHeight();
+            final int size = mAxis.horizontal ? width : height;
+            final float oldEdge = getCoverEdge(oldTranslation);
+            final float newEdge = getCoverEdge(newTranslation);
+            final int start = Math.max(0, (int) Math.floor(Math.min(oldEdge, newEdge)));
+            final int end = Math.min(size, (int) Math.ceil(Math.max(oldEdge, newEdge)));
+            if (start >= end) {
+                return;
+            }
+            if (mAxis.horizontal) {
+                mCoverageDirtyRect.set(start, 0, end, height);
+            } else {
+                mCoverageDirtyRect.set(0, start, width, end);
+            }
+            GenericDrawerLayout.this.invalidate(mCoverageDirtyRect);
+        }
+
+        /**
+         * 抽屉容器在布局中的index，缓存的index已经失效时重新查找
+         */
+        private int getContainerIndex() {
+            if (mContainerIndex < 0 || mContainerIndex >= getChildCount()
+                    || getChildAt(mContainerIndex) != mContentLayout) {
+                mContainerIndex = indexOfChild(mContentLayout);
+            }
+            return mContainerIndex;
+        }
+
+        /**
+         * 获取关闭时，移动的距离
+         */
+        private float getCloseTranslation() {
+            return mAxis.closeTranslation;
+        }
+
+        /**
+         * 获取当前移动距离
+         */
+        private float getCurTranslation() {
+            checkDrawerInit();
+            return mAxis.horizontal ? ViewHelper.getTranslationX(mContentLayout) : ViewHelper.getTranslationY(mContentLayout);
+        }
+
+        /**
+         * 获取当前移动距离，只用于判断，不会调整抽屉的位置；还没有调整过位置时返回调整后的位置
+         */
+        private float peekCurTranslation() {
+            if (!mIsDrawerOpenned) {
+                return mAxis.startTranslation;
+            }
+            return mAxis.horizontal ? ViewHelper.getTranslationX(mContentLayout) : ViewHelper.getTranslationY(mContentLayout);
+        }
+
+        private void checkDrawerInit() {
+            if (mIsDrawerOpenned) {
+                return;
+            }
+            adjustContentLayout();
+            mIsDrawerOpenned = true;
+        }
+
+        /**
+         * 获取打开时候，移动距离
+         */
+        private float getOpenTranslation() {
+            return 0f;
+        }
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        mTracer.trace(DrawerTracer.EVENT_LAYOUT_DISPATCH, ev.getAction(), ev.getPointerCount());
+
+        // 所有事件都要记录手指位置，手指数量不符合时也一样，否则手指数量恢复后会出现跳动
+        mPointerTracker.onTouchEvent(ev);
+
+        if (!mIsOpenable) {
+            // 如果禁用了抽屉
+            return super.dispatchTouchEvent(ev);
+        }
+
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                // 新的手势，选择响应的抽屉
+                mIsGestureRejected = false;
+                routeGesture();
+                if (errorFingerCount(ev)) {
+                    break;
+                }
+                // 单指打开抽屉，按下时就判断是否在响应区域内
+                if (!startGesture()) {
+                    return super.dispatchTouchEvent(ev);
+                }
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN:
+                if(errorFingerCount(ev)){
+                    return super.dispatchTouchEvent(ev);
+                }
+                // 手指数量符合，按所有手指的中心点重新选择响应的抽屉
+                routeGesture();
+                if (!startGesture()) {
+                    return super.dispatchTouchEvent(ev);
+                }
+                break;
+        }
+        if (mIsGestureRejected) {
+            // 手势开始时不在抽屉的响应区域内，之后的事件都交给子View
+            return super.dispatchTouchEvent(ev);
+        }
+        if(!errorFingerCount(ev)) {
+            // 处理Touch事件，只交给响应当前手势的抽屉
+            mActiveDrawer.performDispatchTouchEvent(ev);
+        }
+        return true;
+    }
+
+    /**
+     * 手指数量符合时，判断所有手指的中心点是否在响应当前手势的抽屉的响应区域内，在区域内时开始手势
+     *
+     * @return 是否开始手势，不在响应区域内时返回false，这个手势之后的事件不再交给抽屉
+     */
+    private boolean startGesture() {
+        if (!mActiveDrawer.isInTouchZone(mPointerTracker.getCentroidX(), mPointerTracker.getCentroidY())) {
+            mIsGestureRejected = true;
+            return false;
+        }
+        mIsGestureRejected = false;
+        mActiveDrawer.onGestureStart();
+        return true;
+    }
+
+    /**
+     * 选择响应当前手势的抽屉：正在使用的抽屉优先，否则选择离手指中心点最近的抽屉
+     * <p>
+     * 每个手势只在开始时选择一次，之后的事件直接交给选中的抽屉，不会因为抽屉数量增加而多次分发
+     */
+    private void routeGesture() {
+        if (mDrawerCount == 1) {
+            mActiveDrawer = mDrawer;
+            return;
+        }
+        final float x = mPointerTracker.getCentroidX();
+        final float y = mPointerTracker.getCentroidY();
+        Drawer nearest = mDrawer;
+        float nearestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < mDrawerCount; i++) {
+            Drawer drawer = mDrawers[i];
+            if (drawer.isInUse()) {
+                // 已经打开或者正在移动的抽屉继续响应，不同时打开两个抽屉
+                mActiveDrawer = drawer;
+                return;
+            }
+            float distance = drawer.mAxis.distanceToEdge(drawer.mAxis.along(x, y));
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = drawer;
+            }
+        }
+        mActiveDrawer = nearest;
+    }
+
+    private boolean errorFingerCount(MotionEvent event) {
+        int fingerCount = event.getPointerCount();
+        mTracer.trace(DrawerTracer.EVENT_FINGER_COUNT, event.getAction(), fingerCount);
+        switch (mFingerType) {
+            case FINGER_SINGLE:
+                return fingerCount != 1;
+            case FINGER_DOUBLE:
+                return fingerCount != 2;
+            case FINGER_TRIPLE:
+                return fingerCount != 3;//TODO 需要处理四个手指的异常情况
+        }
+        return true;
+    }
+
+    /**
+     * 设置在移动抽屉时改变背景透明度
+     *
+     * @param isOpaque 是否同时改变背景透明度
+     */
+    public void setOpaqueWhenTranslating(boolean isOpaque) {
+        this.mIsOpaqueWhenTranslating = isOpaque;
+    }
+
+    /**
+     * 设置是否把拖拽时的位置更新合并到每一帧只执行一次
+     * <p>
+     * 打开后，同一帧内的多个MOVE事件只会设置一次抽屉位置、刷新一次背景以及回调一次onTranslating
+     *
+     * @param coalesce 是否合并
+     */
+    public void setCoalesceDragUpdates(boolean coalesce) {
+        this.mIsCoalesceDragUpdates = coalesce;
+        if (!coalesce) {
+            for (int i = 0; i < mDrawerCount; i++) {
+                mDrawers[i].flushPendingTranslation();
+            }
+        }
+    }
+
+    /**
+     * 设置是否在拖拽时预测手指的位置
+     * <p>
+     * 打开后会按当前速度把抽屉向前移动一点（有衰减以及最大距离限制），减少抽屉落后于手指的感觉；
+     * 手指抬起时按手指的位置判断打开还是关闭，动画从抽屉当前显示的位置开始
+     *
+     * @param predictive 是否预测
+     */
+    public void setPredictiveDragEnabled(boolean predictive) {
+        this.mIsPredictiveDrag = predictive;
+    }
+
+    /**
+     * 设置手指按下时如果正在打开或者关闭，是否让抽屉停在当前位置并直接开始拖拽
+     * <p>
+     * 默认直接跳到动画的结束位置（和动画正常结束一样回调结束事件）再开始拖拽，抽屉会跳一下
+     *
+     * @param catchInFlight 是否停在当前位置
+     */
+    public void setCatchInFlight(boolean catchInFlight) {
+        this.mIsCatchInFlight = catchInFlight;
+    }
+
+    /**
+     * 设置是否统计拖拽延迟
+     *
+     * @param enabled 是否统计
+     * @see #getDrawerMetrics()
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        this.mIsMetricsEnabled = enabled;
+        if (!enabled) {
+            mFrameLatencyEventTime = -1;
+        }
+        updateFrameLatencyListener();
+    }
+
+    /**
+     * 获取当前的拖拽延迟统计快照
+     */
+    public DrawerMetrics getDrawerMetrics() {
+        return new DrawerMetrics(mTouchToApplyLatency.snapshot(), mTouchToFrameLatency.snapshot());
+    }
+
+    /**
+     * 清空拖拽延迟统计
+     */
+    public void resetDrawerMetrics() {
+        mTouchToApplyLatency.reset();
+        mTouchToFrameLatency.reset();
+        mFrameLatencyEventTime = -1;
+    }
+
+    private void updateFrameLatencyListener() {
+        if (!mIsMetricsEnabled) {
+            removeFrameLatencyListener();
+            return;
+        }
+        if (!mIsFrameLatencyListenerAdded && getWindowToken() != null) {
+            getViewTreeObserver().addOnPreDrawListener(mFrameLatencyListener);
+            mIsFrameLatencyListenerAdded = true;
+        }
+    }
+
+    private void removeFrameLatencyListener() {
+        if (mIsFrameLatencyListenerAdded) {
+            getViewTreeObserver().removeOnPreDrawListener(mFrameLatencyListener);
+            mIsFrameLatencyListenerAdded = false;
+        }
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (!getUncoveredClip(child, mDrawClipRect)) {
+            // 没有被不透明的抽屉遮住
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        final int left = child.getLeft() + (int) ViewHelper.getTranslationX(child);
+        final int top = child.getTop() + (int) ViewHelper.getTranslationY(child);
+        if (mDrawClipRect.isEmpty() || !mDrawClipRect.intersects(left, top,
+                left + child.getWidth(), top + child.getHeight())) {
+            // 完全被遮住，不需要绘制
+            return false;
+        }
+        // 只绘制没有被遮住的部分
+        final int saveCount = canvas.save();
+        canvas.clipRect(mDrawClipRect);
+        boolean result = super.drawChild(canvas, child, drawingTime);
+        canvas.restoreToCount(saveCount);
+        return result;
+    }
+
+    /**
+     * 计算子View没有被上面的不透明抽屉遮住的区域
+     *
+     * @param child 子View
+     * @param out   保存结果，所有抽屉露出区域的交集
+     * @return 是否被不透明的抽屉遮住，返回false时out没有意义
+     */
+    private boolean getUncoveredClip(View child, Rect out) {
+        boolean covered = false;
+        int childIndex = -1;
+        for (int i = 0; i < mDrawerCount; i++) {
+            Drawer drawer = mDrawers[i];
+            if (drawer.mContentLayout == child) {
+                // 抽屉自己的index已经缓存，顺便更新绘制位置
+                childIndex = mDrawChildCursor = drawer.getContainerIndex();
+                continue;
+            }
+            if (!drawer.isCoveringOpaque()) {
+                continue;
+            }
+            if (childIndex < 0) {
+                childIndex = getDrawingChildIndex(child);
+            }
+            if (drawer.getContainerIndex() < childIndex) {
+                // 抽屉在子View的下面
+                continue;
+            }
+            // 抽屉覆盖的是移动方向上的一整条区域，露出区域的交集就是所有抽屉都没有覆盖的区域
+            drawer.getUncoveredRect(mDrawerUncoveredRect, getWidth(), getHeight());
+            if (!covered) {
+                out.set(mDrawerUncoveredRect);
+                covered = true;
+            } else if (!out.intersect(mDrawerUncoveredRect)) {
+                out.setEmpty();
+            }
+        }
+        return covered;
+    }
+
+    /**
+     * 获取正在绘制的子View的index；子View按顺序绘制时不需要查找
+     */
+    private int getDrawingChildIndex(View child) {
+        int index = mDrawChildCursor + 1;
+        if (index >= getChildCount() || getChildAt(index) != child) {
+            // 绘制顺序和index不一致（例如设置了Z轴高度），按顺序查找
+            index = indexOfChild(child);
+        }
+        mDrawChildCursor = index;
+        return index;
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (mIsCapturingBehind) {
+            // 截取抽屉后面的内容时不绘制自己
+            return;
+        }
+        mDrawChildCursor = -1;
+        super.dispatchDraw(canvas);
+    }
+
+    /**
+     * 抽屉开始移动后，在主线程空闲时（两帧之间）截取抽屉后面的内容；每次从关闭开始移动时截取一次，抽屉打开期间一直使用
+     */
+    private void scheduleBlurCapture() {
+        if (mBlurPyramid.isStarted() || mIsBlurCaptureScheduled || getWindowToken() == null) {
+            return;
+        }
+        mIsBlurCaptureScheduled = true;
+        Looper.myQueue().addIdleHandler(mBlurCapturer);
+    }
+
+    private void cancelBlurCapture() {
+        if (!mIsBlurCaptureScheduled) {
+            return;
+        }
+        mIsBlurCaptureScheduled = false;
+        Looper.myQueue().removeIdleHandler(mBlurCapturer);
+    }
+
+    /**
+     * 截取抽屉后面的内容（父View中自己所在的区域，不包括自己），直接绘制到缩小后的Bitmap中，在后台线程计算几层模糊结果
+     */
+    private void captureBlurBehind() {
+        if (mBlurPyramid.isStarted() || !(getParent() instanceof View) || getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        final View parent = (View) getParent();
+        Bitmap source = mSnapshotPool.get(Math.max(1, getWidth() / BLUR_DOWNSAMPLE),
+                Math.max(1, getHeight() / BLUR_DOWNSAMPLE));
+        if (source == null) {
+            return;
+        }
+        source.eraseColor(Color.TRANSPARENT);
+        if (mSnapshotCanvas == null) {
+            mSnapshotCanvas = new Canvas();
+        }
+        mSnapshotCanvas.setBitmap(source);
+        final int saveCount = mSnapshotCanvas.save();
+        mSnapshotCanvas.scale(1f / BLUR_DOWNSAMPLE, 1f / BLUR_DOWNSAMPLE);
+        mSnapshotCanvas.translate(parent.getScrollX() - getLeft(), parent.getScrollY() - getTop());
+        mIsCapturingBehind = true;
+        try {
+            parent.draw(mSnapshotCanvas);
+        } finally {
+            mIsCapturingBehind = false;
+            mSnapshotCanvas.restoreToCount(saveCount);
+            mSnapshotCanvas.setBitmap(null);
+        }
+        mBlurPyramid.start(source, mSnapshotPool, mBlurReadyRunnable);
+        // 像素已经读取，缩小后的背景不再使用
+        mSnapshotPool.put(source);
+    }
+
+    /**
+     * 所有抽屉都完全关闭后释放模糊结果
+     */
+    private void releaseBlurBehindIfClosed() {
+        if (isAnyDrawerInUse()) {
+            return;
+        }
+        cancelBlurCapture();
+        if (!mBlurPyramid.isStarted()) {
+            return;
         }
+        mBlurPyramid.release();
+        mDrawView.invalidate();
     }
 
     /**
-     * 设置在移动抽屉时改变背景透明度
+     * 是否有抽屉正在使用（正在拖拽、正在打开/关闭或者没有完全关闭）
+     */
+    private boolean isAnyDrawerInUse() {
+        for (int i = 0; i < mDrawerCount; i++) {
+            if (mDrawers[i].isInUse()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按mLayerPolicy改变主内容视图（除了背景以及抽屉容器以外的子View）的layer类型，已经使用layer的视图不改变
+     */
+    private void promoteContentLayers(Drawer drawer) {
+        if (!mLayerPromotedViews.isEmpty()) {
+            // 其他抽屉移动时已经改变过
+            return;
+        }
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child == mDrawView || child instanceof ContentLayout || child.getLayerType() != View.LAYER_TYPE_NONE) {
+                continue;
+            }
+            int layerType = mLayerPolicy.getLayerType(child, drawer.mTouchViewGravity, false);
+            if (layerType != View.LAYER_TYPE_NONE) {
+                setLayerTypeForMove(child, layerType);
+                mLayerPromotedViews.add(child);
+            }
+        }
+    }
+
+    /**
+     * 所有抽屉都停止后，恢复主内容视图的layer类型
+     */
+    private void demoteContentLayers() {
+        for (int i = 0; i < mDrawerCount; i++) {
+            if (mDrawers[i].mIsLayerPromoted) {
+                return;
+            }
+        }
+        for (int i = 0; i < mLayerPromotedViews.size(); i++) {
+            mLayerPromotedViews.get(i).setLayerType(View.LAYER_TYPE_NONE, null);
+        }
+        mLayerPromotedViews.clear();
+    }
+
+    /**
+     * 设置layer类型，已经显示在窗口上时立即创建layer，避免在移动的第一帧创建
+     */
+    private static void setLayerTypeForMove(View view, int layerType) {
+        view.setLayerType(layerType, null);
+        if (view.getWindowToken() != null) {
+            view.buildLayer();
+        }
+    }
+
+    /**
+     * 统计从触摸事件到设置抽屉位置的延迟，并在下一帧统计到开始绘制的延迟
+     */
+    private void recordDragLatency() {
+        if (!mIsMetricsEnabled) {
+            return;
+        }
+        mTouchToApplyLatency.record(SystemClock.uptimeMillis() - mDragEventTime);
+        mFrameLatencyEventTime = mDragEventTime;
+    }
+
+    /**
+     * 设置抽屉移动（拖拽或者打开/关闭）时视图使用的layer类型，默认只有抽屉容器使用硬件layer
      *
-     * @param isOpaque 是否同时改变背景透明度
+     * @param policy 为null时不使用layer
+     * @see DrawerLayerPolicy
      */
-    public void setOpaqueWhenTranslating(boolean isOpaque) {
-        this.mIsOpaqueWhenTranslating = isOpaque;
+    public void setLayerPolicy(DrawerLayerPolicy policy) {
+        this.mLayerPolicy = policy != null ? policy : DrawerLayerPolicy.NONE;
+    }
+
+    /**
+     * 设置抽屉内容（不包括空白区域）是否完全不透明
+     * <p>
+     * 不透明的抽屉会遮住下面的背景以及其他子View，被遮住的部分不再绘制
+     *
+     * @param opaque 是否完全不透明
+     */
+    public void setDrawerContentOpaque(boolean opaque) {
+        mDrawer.mIsContentOpaque = opaque;
+        invalidate();
+    }
+
+    /**
+     * 设置某个方向上的抽屉内容（不包括空白区域）是否完全不透明
+     *
+     * @param gravity 抽屉位置
+     * @param opaque  是否完全不透明
+     * @see #setDrawerContentOpaque(boolean)
+     */
+    public void setDrawerContentOpaque(int gravity, boolean opaque) {
+        Drawer drawer = getDrawer(gravity);
+        if (drawer != null) {
+            drawer.mIsContentOpaque = opaque;
+            invalidate();
+        }
+    }
+
+    /**
+     * 设置抽屉移动（拖拽或者打开/关闭）时是否只绘制移动开始时抽屉内容的快照
+     * <p>
+     * 打开后抽屉内容在移动过程中的变化（例如动画）不会显示，抽屉停止后恢复；快照使用的Bitmap会被重复使用
+     *
+     * @param snapshot 是否使用快照
+     */
+    public void setSnapshotWhileMoving(boolean snapshot) {
+        this.mIsSnapshotWhileMoving = snapshot;
+        if (!snapshot) {
+            for (int i = 0; i < mDrawerCount; i++) {
+                mDrawers[i].releaseSnapshot();
+            }
+            mSnapshotPool.clear();
+        }
+    }
+
+    /**
+     * 设置在移动抽屉时是否模糊抽屉后面的内容（毛玻璃效果）
+     * <p>
+     * 抽屉从关闭开始移动后，在主线程空闲时截取一次后面的内容，缩小后在后台线程计算几层不同程度的模糊，
+     * 移动过程中按抽屉打开的比例在这几层之间渐变，不会每一帧都重新模糊；可以和setOpaqueWhenTranslating同时使用
+     *
+     * @param blur 是否模糊
+     */
+    public void setBlurBehindWhenTranslating(boolean blur) {
+        this.mIsBlurBehind = blur;
+        if (!blur) {
+            cancelBlurCapture();
+            mBlurPyramid.release();
+            mDrawView.invalidate();
+        }
     }
 
     /**
@@ -590,380 +2238,310 @@ public class GenericDrawerLayout extends FrameLayout {
     }
 
     public void setContentLayout(View view) {
-        mContentLayout.removeAllViews();
-        ViewGroup.LayoutParams lp = view.getLayoutParams();
-        if (lp != null && FrameLayout.LayoutParams.class.isInstance(lp)) {
-            mContentLayout.addView(view, lp);
-        } else {
-            mContentLayout.addView(view);
-        }
-
-        ViewGroup.LayoutParams childLp = view.getLayoutParams();
-        if (childLp != null) {
-            mContentLayout.setLayoutParams(childLp);
-        }
+        mDrawer.setContentView(view);
     }
 
     public void setContentLayout(View view, FrameLayout.LayoutParams layoutParams) {
-        mContentLayout.removeAllViews();
-        mContentLayout.addView(view, layoutParams);
-        mContentLayout.setLayoutParams(layoutParams);
+        mDrawer.setContentView(view, layoutParams);
     }
 
     /**
-     * 切换当前抽屉的状态（打开切换成关闭，关闭切换成打开）
+     * 设置抽屉内容的布局，布局在第一次打开抽屉前，或者第一帧绘制完成后主线程空闲时才加载
+     *
+     * @param layoutResId 布局id
      */
-    public void switchStatus() {
-        if (AnimStatus.CLOSED.equals(mAnimStatus) || AnimStatus.CLOSING.equals(mAnimStatus)) {
-            if (AnimStatus.CLOSED.equals(mAnimStatus)) {
-                mContentLayout.setVisibility(View.VISIBLE);
-                adjustContentLayout();
-            } else {
-                if (AnimStatus.CLOSING.equals(mAnimStatus)) {
-                    if (mAnimating.get()) {
-                        mAnimating.set(false);
-                        // 停止播放动画
-                        mAnimator.end();
-                    }
-                }
-            }
-            open();
-        } else if (AnimStatus.OPENED.equals(mAnimStatus) || AnimStatus.OPENING.equals(mAnimStatus)) {
-            mContentLayout.setVisibility(View.VISIBLE);
-            if (AnimStatus.OPENING.equals(mAnimStatus)) {
-                if (mAnimating.get()) {
-                    mAnimating.set(false);
-                    // 停止播放动画
-                    mAnimator.end();
-                }
-            }
-            close();
-        }
+    public void setContentLayout(int layoutResId) {
+        setContentLayout(createInflateFactory(layoutResId));
     }
 
-    private void handleTouchUp() {
-        if (getCurTranslation() == getCloseTranslation() || getCurTranslation() == getOpenTranslation()) {
-            return;
-        }
-        // 计算从Down到Up每秒移动的距离
-        final VelocityTracker velocityTracker = mVelocityTracker;
-        velocityTracker.computeCurrentVelocity(1000);
-        int velocityX = (int) velocityTracker.getXVelocity();
-        int velocityY = (int) velocityTracker.getYVelocity();
-
-        // 回收测量器
-        if (mVelocityTracker != null) {
-            mVelocityTracker.recycle();
-            mVelocityTracker = null;
-        }
-
-        switch (mTouchViewGravity) {
-            case Gravity.LEFT:
-                if (velocityX > VEL || (getCurTranslation() > -mContentLayout.getWidth() * SCALE_AUTO_OPEN_CLOSE) && velocityX > -VEL) {
-                    // 速度足够，或者移动距离足够，打开抽屉
-                    autoOpenDrawer();
-                } else {
-                    autoCloseDrawer();
-                }
-                break;
-            case Gravity.RIGHT:
-                if (velocityX < -VEL || (getCurTranslation() < mContentLayout.getWidth() * (1 - SCALE_AUTO_OPEN_CLOSE) && velocityX < VEL)) {
-                    // 速度足够，或者移动距离足够，打开抽屉
-                    autoOpenDrawer();
-                } else {
-                    autoCloseDrawer();
-                }
-                break;
-            case Gravity.TOP:
-                if (velocityY > VEL || (getCurTranslation() > -mContentLayout.getHeight() * SCALE_AUTO_OPEN_CLOSE) && velocityY > -VEL) {
-                    // 速度足够，或者移动距离足够，打开抽屉
-                    autoOpenDrawer();
-                } else {
-                    autoCloseDrawer();
-                }
-                break;
-            case Gravity.BOTTOM:
-                if (velocityY < -VEL || (getCurTranslation() < mContentLayout.getHeight() * (1 - SCALE_AUTO_OPEN_CLOSE)) && velocityY < VEL) {
-                    // 速度足够，或者移动距离足够，打开抽屉
-                    autoOpenDrawer();
-                } else {
-                    autoCloseDrawer();
-                }
-                break;
-        }
+    /**
+     * 设置抽屉内容，内容在第一次打开抽屉前，或者第一帧绘制完成后主线程空闲时才创建
+     *
+     * @param factory 用来创建抽屉内容
+     */
+    public void setContentLayout(DrawerContentFactory factory) {
+        mDrawer.setContentFactory(factory);
+        scheduleContentPrefetch();
     }
 
     /**
-     * 自动打开抽屉
+     * 设置抽屉内容的布局，并立即在后台线程加载，加载完成后在主线程设置到抽屉中
+     * <p>
+     * 加载完成前打开抽屉时，直接在主线程加载
+     *
+     * @param layoutResId 布局id
      */
-    private void autoOpenDrawer() {
-        mAnimating.set(true);
-        // 从当前移动的位置，平缓移动到完全打开抽屉的位置
-        mAnimator = ObjectAnimator.ofFloat(getCurTranslation(), getOpenTranslation());
-        mAnimator.setDuration(DURATION_OPEN_CLOSE);
-        mAnimator.addUpdateListener(new MyAnimatorUpdateListener());
-        mAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                // 回掉事件
-                if (!AnimStatus.OPENING.equals(mAnimStatus) && !AnimStatus.OPENED.equals(mAnimStatus)) {
-                    if (mDrawerCallback != null) {
-                        mDrawerCallback.onStartOpen();
-                    }
-                }
-                // 确保抽屉是可见的
-                if (mContentLayout.getVisibility() != View.VISIBLE) {
-                    mContentLayout.setVisibility(View.VISIBLE);
-                }
-                // 更新状态
-                mAnimStatus = AnimStatus.OPENING;
-            }
+    public void setContentLayoutAsync(int layoutResId) {
+        mDrawer.setContentFactoryAsync(createInflateFactory(layoutResId));
+    }
+
+    /**
+     * 设置抽屉内容，并立即在后台线程创建，创建完成后在主线程设置到抽屉中
+     * <p>
+     * 创建完成前打开抽屉时，直接在主线程创建；factory需要可以在后台线程调用
+     *
+     * @param factory 用来创建抽屉内容
+     */
+    public void setContentLayoutAsync(DrawerContentFactory factory) {
+        mDrawer.setContentFactoryAsync(factory);
+    }
 
+    /**
+     * 加载布局的DrawerContentFactory
+     */
+    private static DrawerContentFactory createInflateFactory(final int layoutResId) {
+        return new DrawerContentFactory() {
             @Override
-            public void onAnimationEnd(Animator animation) {
-                if (!mAnimating.get()) {
-                    // 正在播放动画（打开/关闭)
-                    return;
-                }
-                if (mDrawerCallback != null) {
-                    mDrawerCallback.onEndOpen();
-                }
-                mAnimating.set(false);
-                mAnimStatus = AnimStatus.OPENED;
+            public View createContentView(Context context, ViewGroup parent) {
+                return LayoutInflater.from(context).inflate(layoutResId, parent, false);
             }
-        });
-        mAnimator.start();
+        };
     }
 
     /**
-     * 关闭抽屉
+     * 是否有还没有创建内容的抽屉
      */
-    public void close() {
-        autoCloseDrawer();
+    private boolean hasPendingContent() {
+        for (int i = 0; i < mDrawerCount; i++) {
+            if (mDrawers[i].hasPendingContent()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * 打开抽屉
+     * 已经显示在窗口上并且有还没有创建的抽屉内容时，在当前这一帧绘制完成后的主线程空闲时创建
      */
-    public void open() {
-        autoOpenDrawer();
+    private void scheduleContentPrefetch() {
+        if (mIsContentPrefetchScheduled || getWindowToken() == null || !hasPendingContent()) {
+            return;
+        }
+        mIsContentPrefetchScheduled = true;
+        // post的消息在当前这一帧之后执行，添加的空闲回调不会抢在第一帧之前执行
+        post(mScheduleContentPrefetch);
     }
 
-    public boolean isOpened() {
-        return mAnimStatus == AnimStatus.OPENED;
+    private void cancelContentPrefetch() {
+        if (!mIsContentPrefetchScheduled) {
+            return;
+        }
+        mIsContentPrefetchScheduled = false;
+        removeCallbacks(mScheduleContentPrefetch);
+        Looper.myQueue().removeIdleHandler(mContentPrefetcher);
     }
 
-    private class MyAnimatorUpdateListener implements ValueAnimator.AnimatorUpdateListener {
-        @Override
-        public void onAnimationUpdate(ValueAnimator animation) {
-            if (!mAnimating.get()) {
-                return;
-            }
-            Float animatedValue = (Float) animation.getAnimatedValue();
-            if (isHorizontalGravity()) {
-                ViewHelper.setTranslationX(mContentLayout, animatedValue);
-                translationCallback(mContentLayout.getWidth() - Math.abs(animatedValue));
-            } else if (isVerticalGravity()) {
-                ViewHelper.setTranslationY(mContentLayout, animatedValue);
-                translationCallback(mContentLayout.getHeight() - Math.abs(animatedValue));
-            }
+    /**
+     * 在另一个方向上添加抽屉，同一个布局中每个方向最多一个抽屉
+     *
+     * @param gravity 抽屉位置
+     * @param view    抽屉的内容
+     * @return 是否添加成功，方向不合法或者这个方向上已经有抽屉时返回false
+     * @see Gravity
+     */
+    public boolean addDrawer(int gravity, View view) {
+        if (!isValidGravity(gravity) || getDrawer(gravity) != null || mDrawerCount >= MAX_DRAWER_COUNT) {
+            return false;
         }
+        Drawer drawer = createDrawer(gravity);
+        drawer.setContentView(view);
+        return true;
     }
 
     /**
-     * 设置是否抽屉是否可以打开
+     * 在另一个方向上添加抽屉，抽屉内容在第一次打开前，或者第一帧绘制完成后主线程空闲时才创建
+     *
+     * @param gravity 抽屉位置
+     * @param factory 用来创建抽屉内容
+     * @return 是否添加成功，方向不合法或者这个方向上已经有抽屉时返回false
+     * @see #addDrawer(int, View)
      */
-    public void setOpennable(boolean openable) {
-        this.mIsOpenable = openable;
+    public boolean addDrawer(int gravity, DrawerContentFactory factory) {
+        if (!isValidGravity(gravity) || getDrawer(gravity) != null || mDrawerCount >= MAX_DRAWER_COUNT) {
+            return false;
+        }
+        Drawer drawer = createDrawer(gravity);
+        drawer.setContentFactory(factory);
+        scheduleContentPrefetch();
+        return true;
     }
 
     /**
-     * 自动关闭抽屉
+     * 移除通过{@link #addDrawer(int, View)}添加的抽屉
+     *
+     * @param gravity 抽屉位置
      */
-    private void autoCloseDrawer() {
-        mAnimating.set(true);
-        float closeTranslation = getCloseTranslation();
-        mAnimator = ObjectAnimator.ofFloat(getCurTranslation(), closeTranslation);
-        mAnimator.setDuration(DURATION_OPEN_CLOSE);
-        mAnimator.addUpdateListener(new MyAnimatorUpdateListener());
-        mAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                if (!AnimStatus.CLOSING.equals(mAnimStatus) && !AnimStatus.CLOSED.equals(mAnimStatus)) {
-                    if (mDrawerCallback != null) {
-                        mDrawerCallback.onStartClose();
-                    }
-                }
-                mAnimStatus = AnimStatus.CLOSING;
+    public void removeDrawer(int gravity) {
+        Drawer drawer = getDrawer(gravity);
+        if (drawer == null || drawer == mDrawer) {
+            // 不能移除默认的抽屉
+            return;
+        }
+        drawer.stopSettling();
+        drawer.cancelPendingTranslation();
+        drawer.onMoveEnd();
+        drawer.cancelContentRequest();
+        removeView(drawer.mContentLayout);
+        int index = 0;
+        for (int i = 0; i < mDrawerCount; i++) {
+            if (mDrawers[i] != drawer) {
+                mDrawers[index++] = mDrawers[i];
             }
+        }
+        mDrawers[--mDrawerCount] = null;
+        if (mActiveDrawer == drawer) {
+            mActiveDrawer = mDrawer;
+        }
+    }
 
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                if (!mAnimating.get()) {
-                    return;
-                }
-                if (mDrawerCallback != null) {
-                    mDrawerCallback.onEndClose();
-                    mAnimStatus = AnimStatus.CLOSED;
-                }
-                mAnimating.set(false);
+    /**
+     * 获取某个方向上的抽屉，没有时返回null
+     */
+    private Drawer getDrawer(int gravity) {
+        for (int i = 0; i < mDrawerCount; i++) {
+            if (mDrawers[i].mTouchViewGravity == gravity) {
+                return mDrawers[i];
             }
-        });
-        mAnimator.start();
+        }
+        return null;
+    }
+
+    /**
+     * 除了drawer以外是否有抽屉正在使用（已经打开、正在打开或者正在拖拽），不同时打开两个抽屉
+     * <p>
+     * 正在自动关闭的抽屉不算，先调用close再调用open可以直接换成另一个抽屉
+     */
+    private boolean isOtherDrawerInUse(Drawer drawer) {
+        for (int i = 0; i < mDrawerCount; i++) {
+            Drawer other = mDrawers[i];
+            if (other != drawer && other.isInUse() && !other.isClosing()) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean isHorizontalGravity() {
-        return mTouchViewGravity == Gravity.LEFT || mTouchViewGravity == Gravity.RIGHT;
+    private static boolean isValidGravity(int gravity) {
+        return gravity == Gravity.LEFT || gravity == Gravity.TOP
+                || gravity == Gravity.RIGHT || gravity == Gravity.BOTTOM;
     }
 
-    private boolean isVerticalGravity() {
-        return mTouchViewGravity == Gravity.TOP || mTouchViewGravity == Gravity.BOTTOM;
+    /**
+     * 切换当前抽屉的状态（打开切换成关闭，关闭切换成打开）；其他抽屉正在使用时不会打开
+     */
+    public void switchStatus() {
+        switchStatus(mDrawer);
     }
 
     /**
-     * 移动视图
+     * 切换某个方向上的抽屉的状态；其他抽屉正在使用时不会打开，需要先关闭其他抽屉
      *
-     * @param moveX
-     * @param moveY
-     */
-    private void translateContentLayout(float moveX, float moveY) {
-        float move;
-        switch (mTouchViewGravity) {
-            case Gravity.LEFT:
-                if (getCurTranslation() + moveX < -mContentLayout.getWidth()) {
-                    // 完全关闭
-                    move = -mContentLayout.getWidth();
-                } else if (getCurTranslation() + moveX > 0) {
-                    // 完全打开
-                    move = 0;
-                } else {
-                    move = getCurTranslation() + moveX;
-                }
-                break;
-            case Gravity.RIGHT:
-                if (getCurTranslation() + moveX > mContentLayout.getWidth()) {
-                    move = mContentLayout.getWidth();
-                } else if (getCurTranslation() + moveX < 0) {
-                    move = 0;
-                } else {
-                    move = getCurTranslation() + moveX;
-                }
-                break;
-            case Gravity.TOP:
-                if (getCurTranslation() + moveY < -mContentLayout.getHeight()) {
-                    move = -mContentLayout.getHeight();
-                } else if (getCurTranslation() + moveY > 0) {
-                    move = 0;
-                } else {
-                    move = getCurTranslation() + moveY;
-                }
-                break;
-            case Gravity.BOTTOM:
-                if (getCurTranslation() + moveY > mContentLayout.getHeight()) {
-                    move = mContentLayout.getHeight();
-                } else if (getCurTranslation() + moveY < 0) {
-                    move = 0;
-                } else {
-                    move = getCurTranslation() + moveY;
-                }
-                break;
-            default:
-                move = 0;
-                break;
+     * @param gravity 抽屉位置
+     */
+    public void switchStatus(int gravity) {
+        Drawer drawer = getDrawer(gravity);
+        if (drawer != null) {
+            switchStatus(drawer);
         }
-        if (isHorizontalGravity()) {
-            // 使用兼容低版本的方法移动抽屉
-            ViewHelper.setTranslationX(mContentLayout, move);
-            // 回调事件
-            translationCallback(mContentLayout.getWidth() - Math.abs(move));
-        } else {
-            // 使用兼容低版本的方法移动抽屉
-            ViewHelper.setTranslationY(mContentLayout, move);
-            // 回调事件
-            translationCallback(mContentLayout.getHeight() - Math.abs(move));
+    }
+
+    private void switchStatus(Drawer drawer) {
+        if (isOtherDrawerInUse(drawer)) {
+            // 其他抽屉正在使用时这个抽屉一定是关闭的，切换会打开第二个抽屉
+            return;
         }
+        drawer.switchStatus();
     }
 
     /**
-     * 拖拽开始前，调整内容视图位置
+     * 关闭抽屉
      */
-    private void adjustContentLayout() {
-        float mStartTranslationX = 0;
-        float mStartTranslationY = 0;
-        switch (mTouchViewGravity) {
-            case Gravity.LEFT:
-                mStartTranslationX = -mContentLayout.getWidth() + mDrawerEmptySize + mRevealSize;
-                mStartTranslationY = 0;
-                break;
-            case Gravity.RIGHT:
-                mStartTranslationX = mContentLayout.getWidth() - mDrawerEmptySize - mRevealSize;
-                mStartTranslationY = 0;
-                break;
-            case Gravity.TOP:
-                mStartTranslationX = 0;
-                mStartTranslationY = -mContentLayout.getHeight() + mDrawerEmptySize + mRevealSize;
-                break;
-            case Gravity.BOTTOM:
-                mStartTranslationX = 0;
-                mStartTranslationY = mContentLayout.getHeight() - mDrawerEmptySize - mRevealSize;
-                break;
-        }
-
-        // 移动抽屉
-        ViewHelper.setTranslationX(mContentLayout, mStartTranslationX);
-        ViewHelper.setTranslationY(mContentLayout, mStartTranslationY);
+    public void close() {
+        mDrawer.autoCloseDrawer(0);
     }
 
     /**
-     * 获取关闭时，移动的距离
+     * 关闭某个方向上的抽屉
+     *
+     * @param gravity 抽屉位置
      */
-    private float getCloseTranslation() {
-        switch (mTouchViewGravity) {
-            case Gravity.LEFT:
-                return -mContentLayout.getWidth() + mRevealSize;
-            case Gravity.RIGHT:
-                return mContentLayout.getWidth() - mRevealSize;
-            case Gravity.TOP:
-                return -mContentLayout.getHeight() + mRevealSize;
-            case Gravity.BOTTOM:
-                return mContentLayout.getHeight() - mRevealSize;
-            default:
-                return 0;
+    public void close(int gravity) {
+        Drawer drawer = getDrawer(gravity);
+        if (drawer != null) {
+            drawer.autoCloseDrawer(0);
         }
     }
 
     /**
-     * 获取当前移动距离
+     * 打开抽屉；其他抽屉正在使用时不会打开
      */
-    private float getCurTranslation() {
-        checkDrawerInit();
-        float curTranslation = 0;
-        switch (mTouchViewGravity) {
-            case Gravity.LEFT:
-            case Gravity.RIGHT:
-                curTranslation = ViewHelper.getTranslationX(mContentLayout);
-                break;
-            case Gravity.TOP:
-            case Gravity.BOTTOM:
-                curTranslation = ViewHelper.getTranslationY(mContentLayout);
-                break;
+    public void open() {
+        open(mDrawer);
+    }
+
+    /**
+     * 打开某个方向上的抽屉；其他抽屉正在使用时不会打开，需要先关闭其他抽屉
+     *
+     * @param gravity 抽屉位置
+     */
+    public void open(int gravity) {
+        Drawer drawer = getDrawer(gravity);
+        if (drawer != null) {
+            open(drawer);
         }
-        return curTranslation;
     }
 
-    private void checkDrawerInit() {
-        if (mIsDrawerOpenned) {
+    private void open(Drawer drawer) {
+        if (isOtherDrawerInUse(drawer)) {
+            // 不同时打开两个抽屉
             return;
         }
-        adjustContentLayout();
-        mIsDrawerOpenned = true;
+        drawer.autoOpenDrawer(0);
+    }
+
+    public boolean isOpened() {
+        return mDrawer.isOpened();
+    }
+
+    /**
+     * 某个方向上的抽屉是否已经打开
+     *
+     * @param gravity 抽屉位置
+     */
+    public boolean isOpened(int gravity) {
+        Drawer drawer = getDrawer(gravity);
+        return drawer != null && drawer.isOpened();
+    }
+
+    /**
+     * 设置响应触摸事件的区域大小
+     *
+     * @param closedSize 关闭状态下从抽屉所在边缘开始的响应区域大小，单位PX，MATCH_PARENT表示整个抽屉
+     * @param openedSize 打开状态下抽屉上的响应区域大小，单位PX，MATCH_PARENT表示整个抽屉
+     */
+    public void setTouchViewSize(int closedSize, int openedSize) {
+        mDrawer.setTouchViewSize(closedSize, openedSize);
+    }
+
+    /**
+     * 设置某个方向上的抽屉响应触摸事件的区域大小
+     *
+     * @param gravity    抽屉位置
+     * @param closedSize 关闭状态下从抽屉所在边缘开始的响应区域大小，单位PX，MATCH_PARENT表示整个抽屉
+     * @param openedSize 打开状态下抽屉上的响应区域大小，单位PX，MATCH_PARENT表示整个抽屉
+     */
+    public void setTouchViewSize(int gravity, int closedSize, int openedSize) {
+        Drawer drawer = getDrawer(gravity);
+        if (drawer != null) {
+            drawer.setTouchViewSize(closedSize, openedSize);
+        }
     }
 
     /**
-     * 获取打开时候，移动距离
+     * 设置是否抽屉是否可以打开
      */
-    private float getOpenTranslation() {
-        return 0f;
+    public void setOpennable(boolean openable) {
+        this.mIsOpenable = openable;
     }
 
     /**
@@ -973,13 +2551,26 @@ public class GenericDrawerLayout extends FrameLayout {
      * @see Gravity
      */
     public void setDrawerGravity(int drawerPosition) {
-        if (drawerPosition != Gravity.LEFT && drawerPosition != Gravity.TOP
-                && drawerPosition != Gravity.RIGHT && drawerPosition != Gravity.BOTTOM) {
+        if (!isValidGravity(drawerPosition)) {
             // 如果不是LEFT, TOP, RIGHT, BOTTOM中的一种，直接返回
             return;
         }
-        this.mTouchViewGravity = drawerPosition;
-        mContentLayout.requestLayout();
+        Drawer drawer = getDrawer(drawerPosition);
+        if (drawer != null && drawer != mDrawer) {
+            // 这个方向上已经有其他抽屉
+            return;
+        }
+        mDrawer.setGravity(drawerPosition);
+    }
+
+    /**
+     * 设置事件追踪器
+     *
+     * @param tracer 为null时不做任何记录
+     * @see RingBufferDrawerTracer
+     */
+    public void setDrawerTracer(DrawerTracer tracer) {
+        this.mTracer = tracer != null ? tracer : DrawerTracer.NONE;
     }
 
     public void setFingerType(FingerType fingerType) {
@@ -987,7 +2578,20 @@ public class GenericDrawerLayout extends FrameLayout {
     }
 
     public void setDrawerCallback(DrawerCallback drawerCallback) {
-        this.mDrawerCallback = drawerCallback;
+        mDrawer.mDrawerCallback = drawerCallback;
+    }
+
+    /**
+     * 设置某个方向上的抽屉的事件回调
+     *
+     * @param gravity        抽屉位置
+     * @param drawerCallback
+     */
+    public void setDrawerCallback(int gravity, DrawerCallback drawerCallback) {
+        Drawer drawer = getDrawer(gravity);
+        if (drawer != null) {
+            drawer.mDrawerCallback = drawerCallback;
+        }
     }
 
     public interface DrawerCallback {
@@ -0,0 +1,43 @@
+package com.genericdrawerLayout;
+
+/**
+ * 固定区间的延迟统计，记录时不分配内存
+ */
+class LatencyHistogram {
+
+    /**
+     * 每个区间的上限（包含），单位毫秒
+     */
+    private static final long[] UPPER_BOUNDS_MILLIS = {2, 4, 8, 12, 16, 24, 33, 50, 100, Long.MAX_VALUE};
+
+    private final long[] mCounts = new long[UPPER_BOUNDS_MILLIS.length];
+    private long mMaxMillis;
+
+    /**
+     * 记录一次延迟
+     */
+    void record(long latencyMillis) {
+        if (latencyMillis < 0) {
+            latencyMillis = 0;
+        }
+        int bucket = 0;
+        while (latencyMillis > UPPER_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        mCounts[bucket]++;
+        if (latencyMillis > mMaxMillis) {
+            mMaxMillis = latencyMillis;
+        }
+    }
+
+    void reset() {
+        for (int i = 0; i < mCounts.length; i++) {
+            mCounts[i] = 0;
+        }
+        mMaxMillis = 0;
+    }
+
+    DrawerMetrics.Histogram snapshot() {
+        return new DrawerMetrics.Histogram(UPPER_BOUNDS_MILLIS.clone(), mCounts.clone(), mMaxMillis);
+    }
+}
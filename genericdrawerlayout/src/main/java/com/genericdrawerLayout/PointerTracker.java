@@ -0,0 +1,194 @@
+package com.genericdrawerLayout;
+
+import android.view.MotionEvent;
+
+/**
+ * 按手指id记录每个手指的位置，计算所有手指的中心点以及每次事件的平均移动距离
+ * <p>
+ * 移动距离只统计前后两次事件中都存在的手指，所以有手指按下、抬起或者index顺序变化时不会产生跳动；
+ * 中心点的移动轨迹（包括MOVE事件中合并的历史采样）会交给{@link VelocityEstimator}计算速度
+ */
+class PointerTracker {
+
+    /**
+     * 支持的最大手指id（不包含）
+     */
+    private static final int MAX_POINTER_ID = 32;
+
+    private final float[] mLastX = new float[MAX_POINTER_ID];
+    private final float[] mLastY = new float[MAX_POINTER_ID];
+    /**
+     * 当前按下的手指id，按位记录
+     */
+    private int mActiveIds;
+    /**
+     * 当前按下的手指的中心点
+     */
+    private float mCentroidX, mCentroidY;
+    /**
+     * 最近一次事件中所有手指的平均移动距离
+     */
+    private float mDeltaX, mDeltaY;
+    /**
+     * 从按下开始累计的平均移动距离，相当于一个不会跳动的中心点
+     */
+    private float mPathX, mPathY;
+    /**
+     * 单次采样的平均移动距离
+     */
+    private float mStepDeltaX, mStepDeltaY;
+    /**
+     * 速度计算，可以为null
+     */
+    private final VelocityEstimator mVelocityEstimator;
+
+    PointerTracker(VelocityEstimator velocityEstimator) {
+        this.mVelocityEstimator = velocityEstimator;
+    }
+
+    /**
+     * 处理触摸事件，每个事件只能调用一次
+     */
+    void onTouchEvent(MotionEvent event) {
+        final int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            reset();
+        }
+        // 正在抬起的手指，不再参与中心点的计算
+        final int liftIndex = action == MotionEvent.ACTION_POINTER_UP ? event.getActionIndex() : -1;
+        final boolean allLifted = action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL;
+
+        float batchDeltaX = 0, batchDeltaY = 0;
+        if (action == MotionEvent.ACTION_MOVE) {
+            // 先处理合并在这个事件中的历史采样
+            final int historySize = event.getHistorySize();
+            for (int h = 0; h < historySize; h++) {
+                addHistoricalStep(event, h);
+                batchDeltaX += mStepDeltaX;
+                batchDeltaY += mStepDeltaY;
+                addPathSample(event.getHistoricalEventTime(h));
+            }
+        }
+
+        final int pointerCount = event.getPointerCount();
+        float sumDeltaX = 0, sumDeltaY = 0;
+        int movedCount = 0;
+        float sumX = 0, sumY = 0;
+        int activeCount = 0;
+        int activeIds = 0;
+        for (int i = 0; i < pointerCount; i++) {
+            final int id = event.getPointerId(i);
+            if (id < 0 || id >= MAX_POINTER_ID) {
+                continue;
+            }
+            final int bit = 1 << id;
+            final float x = event.getX(i);
+            final float y = event.getY(i);
+            if ((mActiveIds & bit) != 0) {
+                // 上一次事件中已经存在的手指，累计移动距离
+                final float deltaX = x - mLastX[id];
+                final float deltaY = y - mLastY[id];
+                sumDeltaX += deltaX;
+                sumDeltaY += deltaY;
+                movedCount++;
+            }
+            mLastX[id] = x;
+            mLastY[id] = y;
+            if (i != liftIndex && !allLifted) {
+                activeIds |= bit;
+                sumX += x;
+                sumY += y;
+                activeCount++;
+            }
+        }
+        mActiveIds = activeIds;
+        mStepDeltaX = movedCount > 0 ? sumDeltaX / movedCount : 0;
+        mStepDeltaY = movedCount > 0 ? sumDeltaY / movedCount : 0;
+        mDeltaX = batchDeltaX + mStepDeltaX;
+        mDeltaY = batchDeltaY + mStepDeltaY;
+        if (liftIndex < 0 && !allLifted) {
+            addPathSample(event.getEventTime());
+        } else {
+            // 抬起事件的位置和上一次MOVE一样，不作为速度采样，否则抬起前的停顿会拉低速度
+            mPathX += mStepDeltaX;
+            mPathY += mStepDeltaY;
+        }
+        if (activeCount > 0) {
+            mCentroidX = sumX / activeCount;
+            mCentroidY = sumY / activeCount;
+        }
+    }
+
+    /**
+     * 处理一个历史采样，历史采样只会出现在MOVE事件中，手指不会有变化
+     */
+    private void addHistoricalStep(MotionEvent event, int historyIndex) {
+        float sumDeltaX = 0, sumDeltaY = 0;
+        int movedCount = 0;
+        final int pointerCount = event.getPointerCount();
+        for (int i = 0; i < pointerCount; i++) {
+            final int id = event.getPointerId(i);
+            if (!isTracking(id)) {
+                continue;
+            }
+            final float x = event.getHistoricalX(i, historyIndex);
+            final float y = event.getHistoricalY(i, historyIndex);
+            final float deltaX = x - mLastX[id];
+            final float deltaY = y - mLastY[id];
+            sumDeltaX += deltaX;
+            sumDeltaY += deltaY;
+            movedCount++;
+            mLastX[id] = x;
+            mLastY[id] = y;
+        }
+        mStepDeltaX = movedCount > 0 ? sumDeltaX / movedCount : 0;
+        mStepDeltaY = movedCount > 0 ? sumDeltaY / movedCount : 0;
+    }
+
+    /**
+     * 累计移动轨迹并交给速度计算
+     */
+    private void addPathSample(long timeMillis) {
+        mPathX += mStepDeltaX;
+        mPathY += mStepDeltaY;
+        if (mVelocityEstimator != null) {
+            mVelocityEstimator.addMovement(timeMillis, mPathX, mPathY);
+        }
+    }
+
+    /**
+     * 清空所有手指信息
+     */
+    void reset() {
+        mActiveIds = 0;
+        mDeltaX = 0;
+        mDeltaY = 0;
+        mStepDeltaX = 0;
+        mStepDeltaY = 0;
+        mPathX = 0;
+        mPathY = 0;
+        if (mVelocityEstimator != null) {
+            mVelocityEstimator.clear();
+        }
+    }
+
+    float getCentroidX() {
+        return mCentroidX;
+    }
+
+    float getCentroidY() {
+        return mCentroidY;
+    }
+
+    float getDeltaX() {
+        return mDeltaX;
+    }
+
+    float getDeltaY() {
+        return mDeltaY;
+    }
+
+    private boolean isTracking(int pointerId) {
+        return pointerId >= 0 && pointerId < MAX_POINTER_ID && (mActiveIds & (1 << pointerId)) != 0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.genericdrawerLayout;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * 把事件记录到固定大小的环形缓冲区中，记录时不分配内存，需要的时候再调用{@link #dump()}输出
+ */
+public class RingBufferDrawerTracer implements DrawerTracer {
+
+    private static final String TAG = RingBufferDrawerTracer.class.getSimpleName();
+
+    /**
+     * 默认的缓冲区大小
+     */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private final long[] mTimes;
+    private final int[] mEvents;
+    private final int[] mActions;
+    private final int[] mPointerCounts;
+    /**
+     * 下一条记录写入的位置
+     */
+    private int mNext;
+    /**
+     * 当前缓冲区中的记录数
+     */
+    private int mSize;
+
+    public RingBufferDrawerTracer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RingBufferDrawerTracer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        mTimes = new long[capacity];
+        mEvents = new int[capacity];
+        mActions = new int[capacity];
+        mPointerCounts = new int[capacity];
+    }
+
+    @Override
+    public synchronized void trace(int event, int action, int pointerCount) {
+        mTimes[mNext] = SystemClock.uptimeMillis();
+        mEvents[mNext] = event;
+        mActions[mNext] = action;
+        mPointerCounts[mNext] = pointerCount;
+        mNext = (mNext + 1) % mTimes.length;
+        if (mSize < mTimes.length) {
+            mSize++;
+        }
+    }
+
+    /**
+     * 按时间顺序把缓冲区中的记录追加到builder中
+     */
+    public synchronized void dump(StringBuilder builder) {
+        int start = (mNext - mSize + mTimes.length) % mTimes.length;
+        for (int i = 0; i < mSize; i++) {
+            int index = (start + i) % mTimes.length;
+            builder.append(mTimes[index])
+                    .append(' ').append(eventName(mEvents[index]))
+                    .append(" action=").append(mActions[index])
+                    .append(" fingerCount=").append(mPointerCounts[index])
+                    .append('\n');
+        }
+    }
+
+    /**
+     * 把缓冲区中的记录输出到Log
+     */
+    public void dump() {
+        StringBuilder builder = new StringBuilder();
+        dump(builder);
+        Log.d(TAG, builder.toString());
+    }
+
+    /**
+     * 清空缓冲区
+     */
+    public synchronized void clear() {
+        mNext = 0;
+        mSize = 0;
+    }
+
+    private static String eventName(int event) {
+        switch (event) {
+            case EVENT_LAYOUT_DISPATCH:
+                return "dispatchTouchEvent";
+            case EVENT_FINGER_COUNT:
+                return "fingerCount";
+            case EVENT_CONTENT_DISPATCH:
+                return "ContentLayout.dispatchTouchEvent";
+            case EVENT_CONTENT_INVISIBLE:
+                return "ContentLayout.INVISIBLE";
+            default:
+                return String.valueOf(event);
+        }
+    }
+}
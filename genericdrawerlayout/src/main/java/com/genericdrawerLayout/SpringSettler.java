@@ -0,0 +1,124 @@
+package com.genericdrawerLayout;
+
+/**
+ * 临界阻尼弹簧，用来让抽屉从松手时的位置和速度平滑地停到目标位置
+ * <p>
+ * 位置是时间的解析函数：x(t) = target + (c1 + c2 * t) * e^(-ωt)，每一帧只需要计算一次，不分配内存；
+ * 位置被限制在起点和目标组成的范围内，冲过目标时直接停在目标位置
+ */
+class SpringSettler {
+
+    /**
+     * 默认的弹簧角频率，单位rad/s，从静止开始移动1000px大约需要300ms
+     */
+    private static final float DEFAULT_ANGULAR_FREQUENCY = 35f;
+    /**
+     * 距离目标小于这个值时认为已经停止，单位PX
+     */
+    private static final float POSITION_THRESHOLD = 0.5f;
+    /**
+     * 速度小于这个值时认为已经停止，单位PX/s
+     */
+    private static final float VELOCITY_THRESHOLD = 50f;
+    /**
+     * 计算停止时间时的步长，单位毫秒
+     */
+    private static final int STEP_MILLIS = 4;
+    /**
+     * 最长的动画时间，单位毫秒
+     */
+    private static final int MAX_SETTLE_MILLIS = 2000;
+
+    private final float mAngularFrequency;
+
+    private float mTarget;
+    private float mC1, mC2;
+    private float mMin, mMax;
+    private long mSettleMillis;
+
+    SpringSettler() {
+        this(DEFAULT_ANGULAR_FREQUENCY);
+    }
+
+    SpringSettler(float angularFrequency) {
+        this.mAngularFrequency = angularFrequency;
+    }
+
+    /**
+     * 开始一次新的运动
+     *
+     * @param position 当前位置
+     * @param velocity 当前速度，单位PX/s
+     * @param target   目标位置
+     * @param bound    除了目标以外允许到达的另一个边界（例如关闭位置）
+     */
+    void start(float position, float velocity, float target, float bound) {
+        mTarget = target;
+        mC1 = position - target;
+        mC2 = velocity + mAngularFrequency * mC1;
+        mMin = Math.min(target, Math.min(bound, position));
+        mMax = Math.max(target, Math.max(bound, position));
+        mSettleMillis = computeSettleMillis();
+    }
+
+    /**
+     * 停止所需要的时间，单位毫秒
+     */
+    long getSettleMillis() {
+        return mSettleMillis;
+    }
+
+    float getTarget() {
+        return mTarget;
+    }
+
+    /**
+     * 获取开始后经过指定时间的位置
+     */
+    float getPosition(long elapsedMillis) {
+        if (elapsedMillis >= mSettleMillis) {
+            return mTarget;
+        }
+        float t = elapsedMillis / 1000f;
+        float position = mTarget + (mC1 + mC2 * t) * (float) Math.exp(-mAngularFrequency * t);
+        return Math.max(mMin, Math.min(position, mMax));
+    }
+
+    /**
+     * 获取开始后经过指定时间的速度，单位PX/s；位置被限制在边界上时速度为0
+     */
+    float getVelocity(long elapsedMillis) {
+        if (elapsedMillis >= mSettleMillis) {
+            return 0;
+        }
+        float t = elapsedMillis / 1000f;
+        float decay = (float) Math.exp(-mAngularFrequency * t);
+        float position = mTarget + (mC1 + mC2 * t) * decay;
+        if (position < mMin || position > mMax) {
+            // 已经停在边界上，不能把冲出边界的速度交给下一次运动
+            return 0;
+        }
+        return (mC2 - mAngularFrequency * (mC1 + mC2 * t)) * decay;
+    }
+
+    private long computeSettleMillis() {
+        for (int millis = 0; millis < MAX_SETTLE_MILLIS; millis += STEP_MILLIS) {
+            float t = millis / 1000f;
+            float decay = (float) Math.exp(-mAngularFrequency * t);
+            float position = mTarget + (mC1 + mC2 * t) * decay;
+            if (position <= mMin || position >= mMax) {
+                // 冲过了边界，如果是目标位置就直接停下
+                float clamped = Math.max(mMin, Math.min(position, mMax));
+                if (clamped == mTarget) {
+                    return millis;
+                }
+                continue;
+            }
+            float velocity = (mC2 - mAngularFrequency * (mC1 + mC2 * t)) * decay;
+            if (Math.abs(position - mTarget) < POSITION_THRESHOLD && Math.abs(velocity) < VELOCITY_THRESHOLD) {
+                return millis;
+            }
+        }
+        return MAX_SETTLE_MILLIS;
+    }
+}
@@ -0,0 +1,223 @@
+package com.genericdrawerLayout;
+
+/**
+ * 纯Java实现的Stack Blur（Mario Klingemann的算法），不依赖GPU或者RenderScript，可以在后台线程调用
+ * <p>
+ * 效果接近高斯模糊，耗时与半径无关，只与像素数量有关
+ */
+final class StackBlur {
+
+    private StackBlur() {
+    }
+
+    /**
+     * 模糊ARGB像素（包括透明度）
+     *
+     * @param pixels 像素，结果直接写回
+     * @param width  宽度
+     * @param height 高度
+     * @param radius 模糊半径，小于1时不处理
+     */
+    static void blur(int[] pixels, int width, int height, int radius) {
+        if (radius < 1 || width <= 0 || height <= 0) {
+            return;
+        }
+        final int wm = width - 1;
+        final int hm = height - 1;
+        final int wh = width * height;
+        final int div = radius + radius + 1;
+        final int r1 = radius + 1;
+
+        final int[] r = new int[wh];
+        final int[] g = new int[wh];
+        final int[] b = new int[wh];
+        final int[] a = new int[wh];
+        final int[] vmin = new int[Math.max(width, height)];
+
+        int divsum = (div + 1) >> 1;
+        divsum *= divsum;
+        final int[] dv = new int[256 * divsum];
+        for (int i = 0; i < dv.length; i++) {
+            dv[i] = i / divsum;
+        }
+
+        final int[][] stack = new int[div][4];
+        int[] sir;
+        int rbs;
+        int stackpointer;
+        int p;
+        int yi = 0;
+        int yw = 0;
+
+        // 水平方向
+        for (int y = 0; y < height; y++) {
+            int rsum = 0, gsum = 0, bsum = 0, asum = 0;
+            int rinsum = 0, ginsum = 0, binsum = 0, ainsum = 0;
+            int routsum = 0, goutsum = 0, boutsum = 0, aoutsum = 0;
+            for (int i = -radius; i <= radius; i++) {
+                p = pixels[yi + Math.min(wm, Math.max(i, 0))];
+                sir = stack[i + radius];
+                sir[0] = (p >> 16) & 0xff;
+                sir[1] = (p >> 8) & 0xff;
+                sir[2] = p & 0xff;
+                sir[3] = p >>> 24;
+                rbs = r1 - Math.abs(i);
+                rsum += sir[0] * rbs;
+                gsum += sir[1] * rbs;
+                bsum += sir[2] * rbs;
+                asum += sir[3] * rbs;
+                if (i > 0) {
+                    rinsum += sir[0];
+                    ginsum += sir[1];
+                    binsum += sir[2];
+                    ainsum += sir[3];
+                } else {
+                    routsum += sir[0];
+                    goutsum += sir[1];
+                    boutsum += sir[2];
+                    aoutsum += sir[3];
+                }
+            }
+            stackpointer = radius;
+
+            for (int x = 0; x < width; x++) {
+                r[yi] = dv[rsum];
+                g[yi] = dv[gsum];
+                b[yi] = dv[bsum];
+                a[yi] = dv[asum];
+
+                rsum -= routsum;
+                gsum -= goutsum;
+                bsum -= boutsum;
+                asum -= aoutsum;
+
+                sir = stack[(stackpointer - radius + div) % div];
+                routsum -= sir[0];
+                goutsum -= sir[1];
+                boutsum -= sir[2];
+                aoutsum -= sir[3];
+
+                if (y == 0) {
+                    vmin[x] = Math.min(x + r1, wm);
+                }
+                p = pixels[yw + vmin[x]];
+                sir[0] = (p >> 16) & 0xff;
+                sir[1] = (p >> 8) & 0xff;
+                sir[2] = p & 0xff;
+                sir[3] = p >>> 24;
+
+                rinsum += sir[0];
+                ginsum += sir[1];
+                binsum += sir[2];
+                ainsum += sir[3];
+
+                rsum += rinsum;
+                gsum += ginsum;
+                bsum += binsum;
+                asum += ainsum;
+
+                stackpointer = (stackpointer + 1) % div;
+                sir = stack[stackpointer];
+
+                routsum += sir[0];
+                goutsum += sir[1];
+                boutsum += sir[2];
+                aoutsum += sir[3];
+
+                rinsum -= sir[0];
+                ginsum -= sir[1];
+                binsum -= sir[2];
+                ainsum -= sir[3];
+
+                yi++;
+            }
+            yw += width;
+        }
+
+        // 垂直方向
+        for (int x = 0; x < width; x++) {
+            int rsum = 0, gsum = 0, bsum = 0, asum = 0;
+            int rinsum = 0, ginsum = 0, binsum = 0, ainsum = 0;
+            int routsum = 0, goutsum = 0, boutsum = 0, aoutsum = 0;
+            int yp = -radius * width;
+            for (int i = -radius; i <= radius; i++) {
+                yi = Math.max(0, yp) + x;
+                sir = stack[i + radius];
+                sir[0] = r[yi];
+                sir[1] = g[yi];
+                sir[2] = b[yi];
+                sir[3] = a[yi];
+                rbs = r1 - Math.abs(i);
+                rsum += r[yi] * rbs;
+                gsum += g[yi] * rbs;
+                bsum += b[yi] * rbs;
+                asum += a[yi] * rbs;
+                if (i > 0) {
+                    rinsum += sir[0];
+                    ginsum += sir[1];
+                    binsum += sir[2];
+                    ainsum += sir[3];
+                } else {
+                    routsum += sir[0];
+                    goutsum += sir[1];
+                    boutsum += sir[2];
+                    aoutsum += sir[3];
+                }
+                if (i < hm) {
+                    yp += width;
+                }
+            }
+            yi = x;
+            stackpointer = radius;
+
+            for (int y = 0; y < height; y++) {
+                pixels[yi] = (dv[asum] << 24) | (dv[rsum] << 16) | (dv[gsum] << 8) | dv[bsum];
+
+                rsum -= routsum;
+                gsum -= goutsum;
+                bsum -= boutsum;
+                asum -= aoutsum;
+
+                sir = stack[(stackpointer - radius + div) % div];
+                routsum -= sir[0];
+                goutsum -= sir[1];
+                boutsum -= sir[2];
+                aoutsum -= sir[3];
+
+                if (x == 0) {
+                    vmin[y] = Math.min(y + r1, hm) * width;
+                }
+                p = x + vmin[y];
+                sir[0] = r[p];
+                sir[1] = g[p];
+                sir[2] = b[p];
+                sir[3] = a[p];
+
+                rinsum += sir[0];
+                ginsum += sir[1];
+                binsum += sir[2];
+                ainsum += sir[3];
+
+                rsum += rinsum;
+                gsum += ginsum;
+                bsum += binsum;
+                asum += ainsum;
+
+                stackpointer = (stackpointer + 1) % div;
+                sir = stack[stackpointer];
+
+                routsum += sir[0];
+                goutsum += sir[1];
+                boutsum += sir[2];
+                aoutsum += sir[3];
+
+                rinsum -= sir[0];
+                ginsum -= sir[1];
+                binsum -= sir[2];
+                ainsum -= sir[3];
+
+                yi += width;
+            }
+        }
+    }
+}
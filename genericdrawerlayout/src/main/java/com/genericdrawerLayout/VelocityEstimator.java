@@ -0,0 +1,137 @@
+package com.genericdrawerLayout;
+
+/**
+ * 用最小二乘法估算移动速度，采样保存在固定大小的环形缓冲区中
+ * <p>
+ * 只依赖纯Java，创建一次之后每个手势调用{@link #clear()}重复使用，不需要像VelocityTracker一样obtain/recycle
+ */
+class VelocityEstimator {
+
+    /**
+     * 默认保存的采样数
+     */
+    private static final int DEFAULT_CAPACITY = 20;
+    /**
+     * 只使用最近这段时间内的采样，单位毫秒
+     */
+    private static final long HORIZON_MILLIS = 100;
+    /**
+     * 两次采样间隔超过这个时间，认为手指在中间停顿过，更早的采样不再使用，单位毫秒
+     */
+    private static final long ASSUME_STOPPED_MILLIS = 40;
+
+    private final long[] mTimes;
+    private final float[] mXs;
+    private final float[] mYs;
+    /**
+     * 最新一个采样的位置
+     */
+    private int mIndex = -1;
+    /**
+     * 当前保存的采样数
+     */
+    private int mSize;
+
+    private float mXVelocity, mYVelocity;
+
+    VelocityEstimator() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    VelocityEstimator(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        mTimes = new long[capacity];
+        mXs = new float[capacity];
+        mYs = new float[capacity];
+    }
+
+    /**
+     * 清空所有采样，开始新的手势时调用
+     */
+    void clear() {
+        mIndex = -1;
+        mSize = 0;
+        mXVelocity = 0;
+        mYVelocity = 0;
+    }
+
+    /**
+     * 添加一个采样
+     *
+     * @param timeMillis 采样时间，单位毫秒
+     */
+    void addMovement(long timeMillis, float x, float y) {
+        mIndex = (mIndex + 1) % mTimes.length;
+        mTimes[mIndex] = timeMillis;
+        mXs[mIndex] = x;
+        mYs[mIndex] = y;
+        if (mSize < mTimes.length) {
+            mSize++;
+        }
+    }
+
+    /**
+     * 计算当前速度，和VelocityTracker.computeCurrentVelocity一样
+     *
+     * @param units 1表示像素每毫秒，1000表示像素每秒
+     */
+    void computeCurrentVelocity(int units) {
+        mXVelocity = 0;
+        mYVelocity = 0;
+        if (mSize < 2) {
+            return;
+        }
+        final int capacity = mTimes.length;
+        final long newestTime = mTimes[mIndex];
+        // 找出参与计算的采样数
+        int count = 1;
+        long previousTime = newestTime;
+        while (count < mSize) {
+            int index = (mIndex - count + capacity) % capacity;
+            long time = mTimes[index];
+            if (newestTime - time > HORIZON_MILLIS || previousTime - time > ASSUME_STOPPED_MILLIS) {
+                break;
+            }
+            previousTime = time;
+            count++;
+        }
+        if (count < 2) {
+            return;
+        }
+        // 以最新的采样为原点做线性拟合，斜率就是速度
+        float sumT = 0, sumX = 0, sumY = 0;
+        for (int i = 0; i < count; i++) {
+            int index = (mIndex - i + capacity) % capacity;
+            sumT += mTimes[index] - newestTime;
+            sumX += mXs[index];
+            sumY += mYs[index];
+        }
+        final float meanT = sumT / count;
+        final float meanX = sumX / count;
+        final float meanY = sumY / count;
+        float sumTT = 0, sumTX = 0, sumTY = 0;
+        for (int i = 0; i < count; i++) {
+            int index = (mIndex - i + capacity) % capacity;
+            float t = mTimes[index] - newestTime - meanT;
+            sumTT += t * t;
+            sumTX += t * (mXs[index] - meanX);
+            sumTY += t * (mYs[index] - meanY);
+        }
+        if (sumTT == 0) {
+            // 所有采样的时间都相同
+            return;
+        }
+        mXVelocity = sumTX / sumTT * units;
+        mYVelocity = sumTY / sumTT * units;
+    }
+
+    float getXVelocity() {
+        return mXVelocity;
+    }
+
+    float getYVelocity() {
+        return mYVelocity;
+    }
+}
@@ -39,6 +39,11 @@ import java.util.HashMap;
  * {@link AccelerateDecelerateInterpolator} class, which accelerates into and decelerates
  * out of an animation. This behavior can be changed by calling
  * {@link ValueAnimator#setInterpolator(TimeInterpolator)}.</p>
+ *
+ * <p>Local change, diverges from upstream NineOldAndroids: ANIMATION_START copies the
+ * pending animations into a reused per-thread list (sStartingAnims) instead of
+ * cloning the list, so starting an animation does not allocate. Keep this change
+ * when updating the vendored copy.</p>
  */
 public class ValueAnimator extends Animator {
 
@@ -140,6 +145,15 @@ public class ValueAnimator extends Animator {
                 }
             };
 
+    // Not in upstream: reused instead of cloning sPendingAnimations on every ANIMATION_START
+    private static final ThreadLocal<ArrayList<ValueAnimator>> sStartingAnims =
+            new ThreadLocal<ArrayList<ValueAnimator>>() {
+                @Override
+                protected ArrayList<ValueAnimator> initialValue() {
+                    return new ArrayList<ValueAnimator>();
+                }
+            };
+
     // The time interpolator to be used if none is set on the animation
     private static final /*Time*/Interpolator sDefaultInterpolator =
             new AccelerateDecelerateInterpolator();
@@ -598,11 +612,14 @@ public class ValueAnimator extends Animator {
                     // cause more to be added to the pending list (for example, if one animation
                     // starting triggers another starting). So we loop until sPendingAnimations
                     // is empty.
+                    ArrayList<ValueAnimator> pendingCopy = sStartingAnims.get();
                     while (pendingAnimations.size() > 0) {
-                        ArrayList<ValueAnimator> pendingCopy =
-                                (ArrayList<ValueAnimator>) pendingAnimations.clone();
+                        // Copy element by element: clone() and addAll() both allocate
+                        int count = pendingAnimations.size();
+                        for (int i = 0; i < count; ++i) {
+                            pendingCopy.add(pendingAnimations.get(i));
+                        }
                         pendingAnimations.clear();
-                        int count = pendingCopy.size();
                         for (int i = 0; i < count; ++i) {
                             ValueAnimator anim = pendingCopy.get(i);
                             // If the animation has a startDelay, place it on the delayed list
@@ -612,6 +629,7 @@ public class ValueAnimator extends Animator {
                                 delayedAnims.add(anim);
                             }
                         }
+                        pendingCopy.clear();
                     }
                     // fall through to process first frame of new animations
                 case ANIMATION_FRAME:
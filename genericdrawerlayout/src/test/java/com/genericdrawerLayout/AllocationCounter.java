@@ -0,0 +1,65 @@
+package com.genericdrawerLayout;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 统计当前线程分配的内存（HotSpot的ThreadMXBean），用来检查热路径是否分配对象
+ */
+final class AllocationCounter {
+
+    private static final com.sun.management.ThreadMXBean sThreadBean = getThreadBean();
+
+    private AllocationCounter() {
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        return threadBean;
+    }
+
+    /**
+     * 当前JVM是否可以统计分配的内存
+     */
+    static boolean isSupported() {
+        return sThreadBean != null;
+    }
+
+    /**
+     * 统计执行一次action时当前线程分配的字节数，已经减去统计本身分配的内存
+     * <p>
+     * 类加载以及延迟初始化也会分配内存，调用前需要先预热
+     */
+    static long measure(Runnable action) {
+        final long id = Thread.currentThread().getId();
+        // 统计本身（例如创建参数数组）也可能分配内存，先测出来再减掉
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = sThreadBean.getThreadAllocatedBytes(id);
+            long end = sThreadBean.getThreadAllocatedBytes(id);
+            overhead = Math.min(overhead, end - start);
+        }
+        long start = sThreadBean.getThreadAllocatedBytes(id);
+        action.run();
+        long end = sThreadBean.getThreadAllocatedBytes(id);
+        return Math.max(0, end - start - overhead);
+    }
+
+    /**
+     * 执行rounds次action，返回其中分配最少的一次，排除测试框架偶尔额外分配的内存
+     */
+    static long measure(Runnable action, int rounds) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            min = Math.min(min, measure(action));
+        }
+        return min;
+    }
+}
@@ -0,0 +1,88 @@
+package com.genericdrawerLayout;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.genericdrawerLayout.nineoldandroids.view.ViewHelper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 抽屉容器还没有参与布局时，按它自己的LayoutParams计算开始以及关闭的位置，而不是按整个布局的大小
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class ClosedDrawerAxisTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int DRAWER_SIZE = 600;
+
+    private GenericDrawerLayout mLayout;
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mLayout = new GenericDrawerLayout(mContext);
+    }
+
+    private void layout() {
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private View openDrawer() {
+        View container = mLayout.getChildAt(1);
+        assertEquals(View.GONE, container.getVisibility());
+        mLayout.open();
+        // 显示抽屉时还没有布局，第一帧之前就要从抽屉自己的关闭位置开始
+        return container;
+    }
+
+    @Test
+    public void leftDrawerStartsFromItsOwnWidth() {
+        mLayout.setContentLayout(new View(mContext),
+                new FrameLayout.LayoutParams(DRAWER_SIZE, ViewGroup.LayoutParams.MATCH_PARENT));
+        layout();
+        View container = openDrawer();
+        assertEquals(-DRAWER_SIZE, ViewHelper.getTranslationX(container), 0);
+
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        layout();
+        assertTrue(mLayout.isOpened());
+        assertEquals(DRAWER_SIZE, container.getWidth());
+        assertEquals(0, ViewHelper.getTranslationX(container), 0);
+    }
+
+    @Test
+    public void bottomDrawerStartsFromItsOwnHeight() {
+        mLayout.setDrawerGravity(Gravity.BOTTOM);
+        mLayout.setContentLayout(new View(mContext),
+                new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, DRAWER_SIZE, Gravity.BOTTOM));
+        layout();
+        View container = openDrawer();
+        assertEquals(DRAWER_SIZE, ViewHelper.getTranslationY(container), 0);
+
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        layout();
+        assertTrue(mLayout.isOpened());
+        assertEquals(DRAWER_SIZE, container.getHeight());
+        assertEquals(0, ViewHelper.getTranslationY(container), 0);
+    }
+}
@@ -0,0 +1,150 @@
+package com.genericdrawerLayout;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 抽屉容器只在MeasureSpec、方向、空白区域变化或者子View请求布局时重新测量抽屉内容，每次布局只布局一次抽屉内容
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class ContentLayoutMeasureTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int EMPTY_SIZE = 100;
+
+    /**
+     * 统计onMeasure以及onLayout的调用次数
+     */
+    private static class CountingView extends View {
+        int mMeasureCount;
+        int mLayoutCount;
+
+        CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            mMeasureCount++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+            mLayoutCount++;
+            super.onLayout(changed, left, top, right, bottom);
+        }
+    }
+
+    private GenericDrawerLayout mLayout;
+    private View mDrawerContainer;
+    private CountingView mContent;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mLayout = new GenericDrawerLayout(context);
+        mContent = new CountingView(context);
+        mLayout.setContentLayout(mContent);
+        mDrawerContainer = mLayout.getChildAt(1);
+        // 关闭的抽屉不参与测量，先打开抽屉
+        mLayout.open();
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        layout(WIDTH, HEIGHT);
+        assertEquals(View.VISIBLE, mDrawerContainer.getVisibility());
+        assertEquals(1, mContent.mMeasureCount);
+        assertEquals(1, mContent.mLayoutCount);
+        assertTrue(mLayout.isOpened());
+    }
+
+    private void layout(int width, int height) {
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, width, height);
+    }
+
+    @Test
+    public void containerRelayoutSkipsContentMeasure() {
+        for (int i = 0; i < 3; i++) {
+            mDrawerContainer.requestLayout();
+            layout(WIDTH, HEIGHT);
+        }
+        // 容器重新测量、布局，但抽屉内容的MeasureSpec以及位置都没有变化
+        assertEquals(1, mContent.mMeasureCount);
+        assertEquals(1, mContent.mLayoutCount);
+        assertEquals(WIDTH, mContent.getWidth());
+    }
+
+    @Test
+    public void specChangeRemeasuresContent() {
+        layout(WIDTH, HEIGHT / 2);
+        assertEquals(2, mContent.mMeasureCount);
+        assertEquals(2, mContent.mLayoutCount);
+        assertEquals(HEIGHT / 2, mContent.getHeight());
+    }
+
+    @Test
+    public void contentRequestLayoutRemeasuresContent() {
+        mContent.requestLayout();
+        layout(WIDTH, HEIGHT);
+        assertEquals(2, mContent.mMeasureCount);
+        assertEquals(2, mContent.mLayoutCount);
+    }
+
+    @Test
+    public void emptySizeChangeRemeasuresContent() {
+        mLayout.setDrawerEmptySize(EMPTY_SIZE);
+        layout(WIDTH, HEIGHT);
+        assertEquals(2, mContent.mMeasureCount);
+        assertEquals(2, mContent.mLayoutCount);
+        assertEquals(WIDTH - EMPTY_SIZE, mContent.getWidth());
+        assertEquals(0, mContent.getLeft());
+    }
+
+    @Test
+    public void gravityChangeRemeasuresContentWhenSpecsChange() {
+        mLayout.setDrawerEmptySize(EMPTY_SIZE);
+        layout(WIDTH, HEIGHT);
+        assertEquals(2, mContent.mMeasureCount);
+
+        // 从水平方向改为垂直方向，空白区域从宽度移到高度
+        mLayout.setDrawerGravity(Gravity.TOP);
+        layout(WIDTH, HEIGHT);
+        assertEquals(3, mContent.mMeasureCount);
+        assertEquals(3, mContent.mLayoutCount);
+        assertEquals(WIDTH, mContent.getWidth());
+        assertEquals(HEIGHT - EMPTY_SIZE, mContent.getHeight());
+        assertEquals(0, mContent.getTop());
+    }
+
+    @Test
+    public void oppositeGravityOnlyRelayoutsContent() {
+        mLayout.setDrawerEmptySize(EMPTY_SIZE);
+        layout(WIDTH, HEIGHT);
+        assertEquals(2, mContent.mMeasureCount);
+
+        // 从左侧改为右侧，MeasureSpec相同，只需要把空白区域移到另一侧
+        mLayout.setDrawerGravity(Gravity.RIGHT);
+        layout(WIDTH, HEIGHT);
+        assertEquals(2, mContent.mMeasureCount);
+        assertEquals(3, mContent.mLayoutCount);
+        assertEquals(EMPTY_SIZE, mContent.getLeft());
+        assertEquals(WIDTH, mContent.getRight());
+    }
+}
@@ -0,0 +1,244 @@
+package com.genericdrawerLayout;
+
+import android.view.Gravity;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 对比按mTouchViewGravity分支计算（改用DrawerAxis之前的写法）和使用DrawerAxis的计算结果以及耗时
+ * <p>
+ * 每次操作模拟一个触摸事件在热路径上的计算：限制拖拽位置、判断是否在触摸区域内、松手时判断打开还是关闭、关闭时的位置。
+ * 计算结果每次都会检查；耗时对比默认不运行，需要时去掉{@link Ignore}手动运行
+ */
+public class DrawerAxisBenchmarkTest {
+
+    private static final int[] GRAVITIES = {Gravity.LEFT, Gravity.TOP, Gravity.RIGHT, Gravity.BOTTOM};
+    private static final int WIDTH = 900;
+    private static final int HEIGHT = 1600;
+    private static final int EMPTY_SIZE = 0;
+    private static final int REVEAL_SIZE = 40;
+    private static final int OPENED_TOUCH_SIZE = 300;
+    private static final float SCALE_AUTO_OPEN_CLOSE = 0.5f;
+    private static final float MIN_VELOCITY = 400;
+
+    private static final int INPUTS = 1024;
+    private static final int WARMUP_ROUNDS = 2000;
+    private static final int MEASURE_ROUNDS = 2000;
+
+    /**
+     * 抽屉容器，和View一样每次通过方法获取大小
+     */
+    private static class FakeContentLayout {
+        private final int mWidth, mHeight;
+
+        FakeContentLayout(int width, int height) {
+            mWidth = width;
+            mHeight = height;
+        }
+
+        int getWidth() {
+            return mWidth;
+        }
+
+        int getHeight() {
+            return mHeight;
+        }
+    }
+
+    /**
+     * 改用DrawerAxis之前GenericDrawerLayout中的计算，每次都按方向分支并读取抽屉的大小
+     */
+    private static class LegacyDispatch {
+        private final int mTouchViewGravity;
+        private final FakeContentLayout mContentLayout;
+
+        LegacyDispatch(int gravity, FakeContentLayout contentLayout) {
+            mTouchViewGravity = gravity;
+            mContentLayout = contentLayout;
+        }
+
+        float clampDragTranslation(float translation) {
+            switch (mTouchViewGravity) {
+                case Gravity.LEFT:
+                    return Math.max(-mContentLayout.getWidth(), Math.min(translation, 0));
+                case Gravity.RIGHT:
+                    return Math.max(0, Math.min(translation, mContentLayout.getWidth()));
+                case Gravity.TOP:
+                    return Math.max(-mContentLayout.getHeight(), Math.min(translation, 0));
+                case Gravity.BOTTOM:
+                    return Math.max(0, Math.min(translation, mContentLayout.getHeight()));
+                default:
+                    return 0;
+            }
+        }
+
+        float getCloseTranslation() {
+            switch (mTouchViewGravity) {
+                case Gravity.LEFT:
+                    return -mContentLayout.getWidth() + REVEAL_SIZE;
+                case Gravity.RIGHT:
+                    return mContentLayout.getWidth() - REVEAL_SIZE;
+                case Gravity.TOP:
+                    return -mContentLayout.getHeight() + REVEAL_SIZE;
+                case Gravity.BOTTOM:
+                    return mContentLayout.getHeight() - REVEAL_SIZE;
+                default:
+                    return 0;
+            }
+        }
+
+        boolean isDownInRespondArea(float x, float y, float curTranslation) {
+            switch (mTouchViewGravity) {
+                case Gravity.LEFT:
+                    float xSize = x - mContentLayout.getWidth();
+                    return xSize > curTranslation - OPENED_TOUCH_SIZE && xSize < curTranslation;
+                case Gravity.RIGHT:
+                    return x > curTranslation && x < curTranslation + OPENED_TOUCH_SIZE;
+                case Gravity.BOTTOM:
+                    return y > curTranslation && y < curTranslation + OPENED_TOUCH_SIZE;
+                case Gravity.TOP:
+                    float ySize = y - mContentLayout.getHeight();
+                    return ySize > curTranslation - OPENED_TOUCH_SIZE && ySize < curTranslation;
+                default:
+                    return false;
+            }
+        }
+
+        boolean shouldOpen(float curTranslation, float velocityX, float velocityY) {
+            switch (mTouchViewGravity) {
+                case Gravity.LEFT:
+                    return velocityX > MIN_VELOCITY || (curTranslation > -mContentLayout.getWidth() * SCALE_AUTO_OPEN_CLOSE) && velocityX > -MIN_VELOCITY;
+                case Gravity.RIGHT:
+                    return velocityX < -MIN_VELOCITY || (curTranslation < mContentLayout.getWidth() * (1 - SCALE_AUTO_OPEN_CLOSE) && velocityX < MIN_VELOCITY);
+                case Gravity.TOP:
+                    return velocityY > MIN_VELOCITY || (curTranslation > -mContentLayout.getHeight() * SCALE_AUTO_OPEN_CLOSE) && velocityY > -MIN_VELOCITY;
+                case Gravity.BOTTOM:
+                    return velocityY < -MIN_VELOCITY || (curTranslation < mContentLayout.getHeight() * (1 - SCALE_AUTO_OPEN_CLOSE)) && velocityY < MIN_VELOCITY;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    private static DrawerAxis newAxis(int gravity) {
+        return new DrawerAxis(gravity, WIDTH, HEIGHT, EMPTY_SIZE, REVEAL_SIZE, -1, OPENED_TOUCH_SIZE, SCALE_AUTO_OPEN_CLOSE);
+    }
+
+    /**
+     * 随机的触摸输入：x、y、位置（会超出范围，用来测试限制）、x方向速度、y方向速度
+     */
+    private static float[][] newInputs(long seed) {
+        Random random = new Random(seed);
+        float[][] inputs = new float[INPUTS][];
+        for (int i = 0; i < INPUTS; i++) {
+            inputs[i] = new float[]{
+                    random.nextInt(WIDTH),
+                    random.nextInt(HEIGHT),
+                    random.nextInt(2 * HEIGHT + 1) - HEIGHT - 100,
+                    random.nextInt(6001) - 3000,
+                    random.nextInt(6001) - 3000,
+            };
+        }
+        return inputs;
+    }
+
+    @Test
+    public void axisMatchesLegacySwitchDispatch() {
+        FakeContentLayout contentLayout = new FakeContentLayout(WIDTH, HEIGHT);
+        float[][] inputs = newInputs(1);
+        for (int gravity : GRAVITIES) {
+            LegacyDispatch legacy = new LegacyDispatch(gravity, contentLayout);
+            DrawerAxis axis = newAxis(gravity);
+            assertEquals(legacy.getCloseTranslation(), axis.closeTranslation, 0);
+            for (float[] input : inputs) {
+                float x = input[0], y = input[1], translation = input[2], vx = input[3], vy = input[4];
+                String message = "gravity=" + gravity + " x=" + x + " y=" + y + " t=" + translation;
+                assertEquals(message, legacy.clampDragTranslation(translation), axis.clamp(translation), 0);
+                float clamped = axis.clamp(translation);
+                assertEquals(message, legacy.isDownInRespondArea(x, y, clamped),
+                        axis.isInTouchZone(axis.along(x, y), clamped));
+                assertEquals(message + " vx=" + vx + " vy=" + vy, legacy.shouldOpen(clamped, vx, vy),
+                        axis.shouldOpen(clamped, axis.along(vx, vy), MIN_VELOCITY));
+            }
+        }
+    }
+
+    private static long runLegacy(LegacyDispatch[] dispatches, float[][] inputs, int rounds) {
+        long checksum = 0;
+        for (int r = 0; r < rounds; r++) {
+            LegacyDispatch legacy = dispatches[r & 3];
+            for (float[] input : inputs) {
+                float clamped = legacy.clampDragTranslation(input[2]);
+                if (legacy.isDownInRespondArea(input[0], input[1], clamped)) {
+                    checksum++;
+                }
+                if (legacy.shouldOpen(clamped, input[3], input[4])) {
+                    checksum += 2;
+                }
+                checksum += (long) (clamped - legacy.getCloseTranslation());
+            }
+        }
+        return checksum;
+    }
+
+    private static long runAxis(DrawerAxis[] axes, float[][] inputs, int rounds) {
+        long checksum = 0;
+        for (int r = 0; r < rounds; r++) {
+            DrawerAxis axis = axes[r & 3];
+            for (float[] input : inputs) {
+                float clamped = axis.clamp(input[2]);
+                if (axis.isInTouchZone(axis.along(input[0], input[1]), clamped)) {
+                    checksum++;
+                }
+                if (axis.shouldOpen(clamped, axis.along(input[3], input[4]), MIN_VELOCITY)) {
+                    checksum += 2;
+                }
+                checksum += (long) (clamped - axis.closeTranslation);
+            }
+        }
+        return checksum;
+    }
+
+    @Ignore("性能对比，手动运行")
+    @Test
+    public void benchmarkAgainstLegacySwitchDispatch() {
+        FakeContentLayout contentLayout = new FakeContentLayout(WIDTH, HEIGHT);
+        LegacyDispatch[] dispatches = new LegacyDispatch[GRAVITIES.length];
+        DrawerAxis[] axes = new DrawerAxis[GRAVITIES.length];
+        for (int i = 0; i < GRAVITIES.length; i++) {
+            dispatches[i] = new LegacyDispatch(GRAVITIES[i], contentLayout);
+            axes[i] = newAxis(GRAVITIES[i]);
+        }
+        float[][] inputs = newInputs(2);
+
+        // 预热，两种写法交替执行，让JIT编译完成
+        long legacyChecksum = 0, axisChecksum = 0;
+        for (int i = 0; i < 5; i++) {
+            legacyChecksum = runLegacy(dispatches, inputs, WARMUP_ROUNDS);
+            axisChecksum = runAxis(axes, inputs, WARMUP_ROUNDS);
+        }
+        assertEquals(legacyChecksum, axisChecksum);
+
+        long legacyNanos = Long.MAX_VALUE, axisNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            legacyChecksum = runLegacy(dispatches, inputs, MEASURE_ROUNDS);
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - start);
+            start = System.nanoTime();
+            axisChecksum = runAxis(axes, inputs, MEASURE_ROUNDS);
+            axisNanos = Math.min(axisNanos, System.nanoTime() - start);
+        }
+        assertEquals(legacyChecksum, axisChecksum);
+
+        double ops = (double) INPUTS * MEASURE_ROUNDS;
+        System.out.println(String.format(Locale.US,
+                "DrawerAxisBenchmark: switch dispatch %.2f ns/op, DrawerAxis %.2f ns/op (best of 5, %d ops each)",
+                legacyNanos / ops, axisNanos / ops, (long) ops));
+    }
+}
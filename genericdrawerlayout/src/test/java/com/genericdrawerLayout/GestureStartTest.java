@@ -0,0 +1,129 @@
+package com.genericdrawerLayout;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.genericdrawerLayout.nineoldandroids.view.ViewHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 手势开始时只有关闭的抽屉会调整到开始位置，已经打开的抽屉从当前位置开始拖拽；
+ * 正在打开时按下会先停止动画，之后只有手指移动抽屉
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class GestureStartTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    /**
+     * 打开抽屉后经过的时间，这时动画还没有结束
+     */
+    private static final long IN_FLIGHT_MILLIS = 100;
+
+    private GenericDrawerLayout mLayout;
+    private View mDrawerContainer;
+    private MotionEvent mDown, mMove, mUp;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mLayout = new GenericDrawerLayout(context);
+        mLayout.setFingerType(FingerType.FINGER_SINGLE);
+        mLayout.setContentLayout(new View(context));
+        layout();
+        mDrawerContainer = mLayout.getChildAt(1);
+        mDown = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 500, 500, 0);
+        mMove = MotionEvent.obtain(0, 16, MotionEvent.ACTION_MOVE, 400, 500, 0);
+        mUp = MotionEvent.obtain(0, 32, MotionEvent.ACTION_UP, 400, 500, 0);
+    }
+
+    @After
+    public void tearDown() {
+        mDown.recycle();
+        mMove.recycle();
+        mUp.recycle();
+    }
+
+    private void layout() {
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void touchOnOpenedDrawerStartsFromCurrentPosition() {
+        mLayout.open();
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        layout();
+        assertTrue(mLayout.isOpened());
+        assertEquals(0, ViewHelper.getTranslationX(mDrawerContainer), 0);
+
+        // 打开后整个抽屉都是响应区域，按下时抽屉不能跳到开始位置
+        assertTrue(mLayout.dispatchTouchEvent(mDown));
+        assertEquals(0, ViewHelper.getTranslationX(mDrawerContainer), 0);
+
+        // 向关闭的方向拖拽，从打开的位置开始移动
+        mLayout.dispatchTouchEvent(mMove);
+        assertEquals(-100, ViewHelper.getTranslationX(mDrawerContainer), 0);
+        mLayout.dispatchTouchEvent(mUp);
+    }
+
+    /**
+     * 打开抽屉，在动画结束前返回抽屉当前的位置
+     */
+    private float openInFlight() {
+        mLayout.open();
+        ShadowLooper.idleMainLooper(IN_FLIGHT_MILLIS, TimeUnit.MILLISECONDS);
+        float translation = ViewHelper.getTranslationX(mDrawerContainer);
+        // 手指按下的位置要在抽屉的响应区域内
+        assertTrue(translation > 500 - WIDTH && translation < 0);
+        assertFalse(mLayout.isOpened());
+        return translation;
+    }
+
+    @Test
+    public void touchInFlightJumpsToTheEndByDefault() {
+        openInFlight();
+
+        mLayout.dispatchTouchEvent(mDown);
+        assertEquals(0, ViewHelper.getTranslationX(mDrawerContainer), 0);
+        assertTrue(mLayout.isOpened());
+
+        // 动画已经停止，不会和拖拽一起移动抽屉
+        mLayout.dispatchTouchEvent(mMove);
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        assertEquals(-100, ViewHelper.getTranslationX(mDrawerContainer), 0);
+        mLayout.dispatchTouchEvent(mUp);
+    }
+
+    @Test
+    public void touchInFlightStopsInPlaceWhenCatchingInFlight() {
+        mLayout.setCatchInFlight(true);
+        float translation = openInFlight();
+
+        mLayout.dispatchTouchEvent(mDown);
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        assertEquals(translation, ViewHelper.getTranslationX(mDrawerContainer), 0);
+
+        mLayout.dispatchTouchEvent(mMove);
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        assertEquals(translation - 100, ViewHelper.getTranslationX(mDrawerContainer), 0);
+        mLayout.dispatchTouchEvent(mUp);
+    }
+}
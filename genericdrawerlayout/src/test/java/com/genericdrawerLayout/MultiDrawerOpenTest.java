@@ -0,0 +1,98 @@
+package com.genericdrawerLayout;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 通过open/switchStatus打开抽屉时，其他抽屉正在使用就不打开，不同时打开两个抽屉
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class MultiDrawerOpenTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private GenericDrawerLayout mLayout;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mLayout = new GenericDrawerLayout(context);
+        mLayout.setContentLayout(new View(context));
+        assertTrue(mLayout.addDrawer(Gravity.RIGHT, new View(context)));
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private void settle() {
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void openIsIgnoredWhileAnotherDrawerIsOpen() {
+        mLayout.open(Gravity.LEFT);
+        settle();
+        assertTrue(mLayout.isOpened(Gravity.LEFT));
+
+        mLayout.open(Gravity.RIGHT);
+        settle();
+        assertFalse(mLayout.isOpened(Gravity.RIGHT));
+        assertTrue(mLayout.isOpened(Gravity.LEFT));
+    }
+
+    @Test
+    public void switchStatusIsIgnoredWhileAnotherDrawerIsOpen() {
+        mLayout.open(Gravity.LEFT);
+        settle();
+
+        mLayout.switchStatus(Gravity.RIGHT);
+        settle();
+        assertFalse(mLayout.isOpened(Gravity.RIGHT));
+        assertTrue(mLayout.isOpened(Gravity.LEFT));
+    }
+
+    @Test
+    public void openIsIgnoredWhileAnotherDrawerIsOpening() {
+        mLayout.open(Gravity.LEFT);
+        mLayout.open(Gravity.RIGHT);
+        settle();
+        assertTrue(mLayout.isOpened(Gravity.LEFT));
+        assertFalse(mLayout.isOpened(Gravity.RIGHT));
+    }
+
+    @Test
+    public void closingDrawerCanBeReplaced() {
+        mLayout.open(Gravity.LEFT);
+        settle();
+
+        // 先关闭再打开另一个抽屉，不需要等关闭的动画结束
+        mLayout.close(Gravity.LEFT);
+        mLayout.open(Gravity.RIGHT);
+        settle();
+        assertFalse(mLayout.isOpened(Gravity.LEFT));
+        assertTrue(mLayout.isOpened(Gravity.RIGHT));
+
+        mLayout.switchStatus(Gravity.RIGHT);
+        settle();
+        mLayout.switchStatus(Gravity.LEFT);
+        settle();
+        assertTrue(mLayout.isOpened(Gravity.LEFT));
+        assertFalse(mLayout.isOpened(Gravity.RIGHT));
+    }
+}
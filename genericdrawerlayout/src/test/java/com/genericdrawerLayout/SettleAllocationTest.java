@@ -0,0 +1,178 @@
+package com.genericdrawerLayout;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Message;
+import android.os.SystemClock;
+import android.view.View;
+
+import com.genericdrawerLayout.nineoldandroids.animation.ValueAnimator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 预热之后，反复打开、关闭抽屉（包括每一帧的动画）不分配对象
+ * <p>
+ * 动画的每一帧直接调用ValueAnimator内部的Handler处理，不经过Robolectric的消息队列；
+ * 只统计open()/close()以及每一帧的处理，推进时钟、移除Handler重新发出的消息不在统计范围内
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class SettleAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int REVEAL_SIZE = 40;
+    private static final long FRAME_MILLIS = 16;
+    /**
+     * 每次打开或者关闭处理的帧数，足够弹簧停下来
+     */
+    private static final int FRAMES_PER_SETTLE = 60;
+    private static final int CYCLES = 20;
+    /**
+     * 统计的次数，取最小值
+     */
+    private static final int ROUNDS = 5;
+    private static final int WARMUP_ROUNDS = 10;
+    /**
+     * ValueAnimator.ANIMATION_START以及ANIMATION_FRAME
+     */
+    private static final int ANIMATION_START = 0;
+    private static final int ANIMATION_FRAME = 1;
+    /**
+     * 抽屉容器每次显示或者隐藏时，Robolectric的View.requestLayout创建反射代理分配的内存上限（64位JDK 8上约464字节）
+     */
+    private static final long REQUEST_LAYOUT_BYTES = 512;
+
+    private GenericDrawerLayout mLayout;
+    private View mDrawerContainer;
+    private Handler mAnimationHandler;
+    private Message mStartMessage, mFrameMessage;
+    private Runnable mOpen, mClose, mStart, mFrame;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        mLayout = new GenericDrawerLayout(context);
+        mLayout.setContentLayout(new View(context));
+        mLayout.setOpaqueWhenTranslating(true);
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+        mDrawerContainer = mLayout.getChildAt(1);
+
+        // 第一次播放动画时才创建Handler
+        mLayout.open();
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        mLayout.close();
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        Field field = ValueAnimator.class.getDeclaredField("sAnimationHandler");
+        field.setAccessible(true);
+        mAnimationHandler = (Handler) ((ThreadLocal<?>) field.get(null)).get();
+        mStartMessage = Message.obtain(mAnimationHandler, ANIMATION_START);
+        mFrameMessage = Message.obtain(mAnimationHandler, ANIMATION_FRAME);
+
+        mOpen = new Runnable() {
+            @Override
+            public void run() {
+                mLayout.open();
+            }
+        };
+        mClose = new Runnable() {
+            @Override
+            public void run() {
+                mLayout.close();
+            }
+        };
+        mStart = new Runnable() {
+            @Override
+            public void run() {
+                mAnimationHandler.handleMessage(mStartMessage);
+            }
+        };
+        mFrame = new Runnable() {
+            @Override
+            public void run() {
+                mAnimationHandler.handleMessage(mFrameMessage);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        mStartMessage.recycle();
+        mFrameMessage.recycle();
+    }
+
+    /**
+     * 打开或者关闭抽屉并处理完所有的帧，返回统计范围内分配的字节数
+     */
+    private long settle(boolean open) {
+        long bytes = AllocationCounter.measure(open ? mOpen : mClose);
+        // 由测试代替消息队列处理ANIMATION_START
+        mAnimationHandler.removeMessages(ANIMATION_START);
+        bytes += AllocationCounter.measure(mStart);
+        for (int i = 0; i < FRAMES_PER_SETTLE; i++) {
+            mAnimationHandler.removeMessages(ANIMATION_FRAME);
+            SystemClock.setCurrentTimeMillis(SystemClock.uptimeMillis() + FRAME_MILLIS);
+            bytes += AllocationCounter.measure(mFrame);
+        }
+        mAnimationHandler.removeMessages(ANIMATION_FRAME);
+        return bytes;
+    }
+
+    /**
+     * 预热后执行ROUNDS次，每次CYCLES个打开/关闭，返回分配最少的一次
+     */
+    private long measureCycles() {
+        long min = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long bytes = 0;
+            for (int i = 0; i < CYCLES; i++) {
+                bytes += settle(true);
+                bytes += settle(false);
+            }
+            if (round >= WARMUP_ROUNDS) {
+                min = Math.min(min, bytes);
+            }
+        }
+        assertFalse(mLayout.isOpened());
+        settle(true);
+        assertTrue(mLayout.isOpened());
+        return min;
+    }
+
+    @Test
+    public void openCloseCyclesDoNotAllocate() {
+        assumeTrue(AllocationCounter.isSupported());
+        // 关闭时露出一部分，抽屉容器一直可见，不会调用Robolectric的View.requestLayout
+        mLayout.setDrawerRevealSize(REVEAL_SIZE);
+        long bytes = measureCycles();
+        assertEquals(View.VISIBLE, mDrawerContainer.getVisibility());
+        assertEquals("bytes allocated by " + CYCLES + " open/close cycles", 0, bytes);
+    }
+
+    @Test
+    public void culledOpenCloseCyclesOnlyAllocateInRequestLayout() {
+        assumeTrue(AllocationCounter.isSupported());
+        long bytes = measureCycles();
+        // 每个周期显示、隐藏抽屉容器各一次，除了Robolectric的requestLayout以外不分配
+        assertTrue("bytes allocated by " + CYCLES + " culled open/close cycles: " + bytes,
+                bytes <= CYCLES * 2 * REQUEST_LAYOUT_BYTES);
+    }
+}
@@ -0,0 +1,94 @@
+package com.genericdrawerLayout;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.genericdrawerLayout.nineoldandroids.view.ViewHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 拖拽过程中（MOVE事件）的触摸处理不分配对象
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class TouchAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int MOVES_PER_ROUND = 100;
+
+    private GenericDrawerLayout mLayout;
+    private View mDrawerContainer;
+    private MotionEvent mDown, mMoveA, mMoveB, mUp;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mLayout = new GenericDrawerLayout(context);
+        mLayout.setFingerType(FingerType.FINGER_SINGLE);
+        mLayout.setContentLayout(new View(context));
+        mLayout.setOpaqueWhenTranslating(true);
+        mLayout.setPredictiveDragEnabled(true);
+        layout();
+        mDrawerContainer = (View) mLayout.getChildAt(1);
+        // 事件都在统计之前创建，拖拽时在两个位置之间来回移动
+        mDown = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 20, 500, 0);
+        mMoveA = MotionEvent.obtain(0, 16, MotionEvent.ACTION_MOVE, 300, 500, 0);
+        mMoveB = MotionEvent.obtain(0, 32, MotionEvent.ACTION_MOVE, 340, 500, 0);
+        mUp = MotionEvent.obtain(0, 48, MotionEvent.ACTION_UP, 340, 500, 0);
+    }
+
+    @After
+    public void tearDown() {
+        mDown.recycle();
+        mMoveA.recycle();
+        mMoveB.recycle();
+        mUp.recycle();
+    }
+
+    private void layout() {
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void dragMovesDoNotAllocate() {
+        assumeTrue(AllocationCounter.isSupported());
+        mLayout.dispatchTouchEvent(mDown);
+        // 按下后抽屉变为可见，布局一次
+        layout();
+        assertEquals(View.VISIBLE, mDrawerContainer.getVisibility());
+
+        Runnable drag = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < MOVES_PER_ROUND; i++) {
+                    mLayout.dispatchTouchEvent(mMoveA);
+                    mLayout.dispatchTouchEvent(mMoveB);
+                }
+            }
+        };
+        // 预热
+        drag.run();
+        drag.run();
+        long bytes = AllocationCounter.measure(drag, 3);
+
+        // 抽屉确实跟着手指移动了
+        assertTrue(ViewHelper.getTranslationX(mDrawerContainer) > -WIDTH);
+        assertEquals("bytes allocated by " + (2 * MOVES_PER_ROUND) + " MOVE events", 0, bytes);
+        mLayout.dispatchTouchEvent(mUp);
+    }
+}
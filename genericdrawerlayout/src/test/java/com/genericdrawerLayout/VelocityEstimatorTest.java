@@ -0,0 +1,122 @@
+package com.genericdrawerLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * VelocityEstimator只依赖纯Java，直接在JVM上测试
+ */
+public class VelocityEstimatorTest {
+
+    private static final float DELTA = 0.5f;
+
+    private VelocityEstimator mEstimator;
+
+    @Before
+    public void setUp() {
+        mEstimator = new VelocityEstimator();
+    }
+
+    @Test
+    public void constantVelocityIsFittedExactly() {
+        // x每毫秒移动2像素，y每毫秒移动-1像素
+        for (long t = 0; t <= 64; t += 8) {
+            mEstimator.addMovement(t, 100 + 2 * t, 500 - t);
+        }
+        mEstimator.computeCurrentVelocity(1000);
+        assertEquals(2000, mEstimator.getXVelocity(), DELTA);
+        assertEquals(-1000, mEstimator.getYVelocity(), DELTA);
+
+        mEstimator.computeCurrentVelocity(1);
+        assertEquals(2, mEstimator.getXVelocity(), 0.001f);
+        assertEquals(-1, mEstimator.getYVelocity(), 0.001f);
+    }
+
+    @Test
+    public void ringWrapsAroundAndKeepsNewestSamples() {
+        // 默认保存20个采样，共添加50个，前30个的速度是后20个的5倍
+        long t = 0;
+        float x = 0;
+        for (int i = 0; i < 50; i++, t += 4) {
+            mEstimator.addMovement(t, x, 0);
+            x += i < 30 ? 20 : 4;
+        }
+        mEstimator.computeCurrentVelocity(1000);
+        // 环形缓冲区只剩后20个采样，全部在100ms以内，速度是1像素每毫秒
+        assertEquals(1000, mEstimator.getXVelocity(), DELTA);
+        assertEquals(0, mEstimator.getYVelocity(), 0);
+    }
+
+    @Test
+    public void samplesOlderThanHorizonAreIgnored() {
+        // 容量足够大，只有100ms的时间窗口起作用
+        mEstimator = new VelocityEstimator(64);
+        float x = 0;
+        for (long t = 0; t <= 200; t += 10) {
+            mEstimator.addMovement(t, x, 0);
+            x += t < 100 ? 30 : 10;
+        }
+        mEstimator.computeCurrentVelocity(1000);
+        // 只有t在[100, 200]之间的采样参与计算
+        assertEquals(1000, mEstimator.getXVelocity(), DELTA);
+    }
+
+    @Test
+    public void stopGapBeforeNewestSampleGivesZero() {
+        for (long t = 0; t <= 32; t += 8) {
+            mEstimator.addMovement(t, 3 * t, 0);
+        }
+        // 手指停顿超过40ms后才有新的采样，之前的采样都不再使用
+        mEstimator.addMovement(80, 200, 0);
+        mEstimator.computeCurrentVelocity(1000);
+        assertEquals(0, mEstimator.getXVelocity(), 0);
+        assertEquals(0, mEstimator.getYVelocity(), 0);
+    }
+
+    @Test
+    public void stopGapDropsSamplesBeforeThePause() {
+        for (long t = 0; t <= 32; t += 8) {
+            mEstimator.addMovement(t, 3 * t, 0);
+        }
+        // 停顿之后重新以1像素每毫秒移动
+        mEstimator.addMovement(80, 500, 0);
+        mEstimator.addMovement(88, 508, 0);
+        mEstimator.addMovement(96, 516, 0);
+        mEstimator.computeCurrentVelocity(1000);
+        assertEquals(1000, mEstimator.getXVelocity(), DELTA);
+    }
+
+    @Test
+    public void fewerThanTwoSamplesGiveZero() {
+        mEstimator.computeCurrentVelocity(1000);
+        assertEquals(0, mEstimator.getXVelocity(), 0);
+        assertEquals(0, mEstimator.getYVelocity(), 0);
+
+        mEstimator.addMovement(0, 10, 10);
+        mEstimator.computeCurrentVelocity(1000);
+        assertEquals(0, mEstimator.getXVelocity(), 0);
+        assertEquals(0, mEstimator.getYVelocity(), 0);
+    }
+
+    @Test
+    public void clearDropsPreviousSamplesAndVelocity() {
+        mEstimator.addMovement(0, 0, 0);
+        mEstimator.addMovement(8, 80, 80);
+        mEstimator.computeCurrentVelocity(1000);
+        assertEquals(10000, mEstimator.getXVelocity(), DELTA);
+
+        mEstimator.clear();
+        assertEquals(0, mEstimator.getXVelocity(), 0);
+        mEstimator.addMovement(16, 0, 0);
+        mEstimator.computeCurrentVelocity(1000);
+        assertEquals(0, mEstimator.getXVelocity(), 0);
+        assertEquals(0, mEstimator.getYVelocity(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityBelowTwoIsRejected() {
+        new VelocityEstimator(1);
+    }
+}